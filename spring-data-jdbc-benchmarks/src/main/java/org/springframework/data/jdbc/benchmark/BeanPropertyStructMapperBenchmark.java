@@ -0,0 +1,249 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Struct;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.rowset.RowSetMetaDataImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jdbc.support.oracle.BeanPropertyStructMapper;
+
+/**
+ * Benchmarks for mapping beans to and from structs with {@link BeanPropertyStructMapper}. The structs, arrays and the
+ * connection are in-memory stubs and the attribute metadata is provided up front, so the numbers reflect the cost of
+ * the mapper itself rather than the driver.
+ *
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BeanPropertyStructMapperBenchmark {
+
+	static final String TYPE_NAME = "PERSON_TYPE";
+
+	@Param({"100"})
+	int arrayLength;
+
+	@Param({"true", "false"})
+	boolean fastPropertyAccess;
+
+	BeanPropertyStructMapper<Person> mapper;
+
+	Connection connection;
+
+	Person person;
+
+	Struct struct;
+
+	Array array;
+
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		mapper = new StubMetaDataStructMapper();
+		mapper.setFastPropertyAccess(fastPropertyAccess);
+		connection = StubConnection.newConnection();
+		person = new Person();
+		person.setId(42L);
+		person.setFirstName("Juergen");
+		person.setLastName("Hoeller");
+		person.setAge(40);
+		person.setBirthDate(new Date());
+		person.setSalary(new BigDecimal("1000.50"));
+		person.setActive(true);
+		struct = new InMemoryStruct(TYPE_NAME, attributesOf(person));
+		Object[] elements = new Object[arrayLength];
+		for (int i = 0; i < arrayLength; i++) {
+			elements[i] = new InMemoryStruct(TYPE_NAME, attributesOf(person));
+		}
+		array = new InMemoryArray(TYPE_NAME, elements);
+	}
+
+	@Benchmark
+	public Struct toStruct() throws SQLException {
+		return mapper.toStruct(person, connection, TYPE_NAME);
+	}
+
+	@Benchmark
+	public Person fromStruct() throws SQLException {
+		return mapper.fromStruct(struct);
+	}
+
+	@Benchmark
+	public List<Person> fromStructArray() throws SQLException {
+		Object[] elements = (Object[]) array.getArray();
+		List<Person> people = new ArrayList<Person>(elements.length);
+		for (Object element : elements) {
+			people.add(mapper.fromStruct((Struct) element));
+		}
+		return people;
+	}
+
+	/**
+	 * Returns the attribute values as the Oracle driver would, with NUMBER attributes as BigDecimal, DATE
+	 * attributes as Timestamp and the CHAR(1) flag as String.
+	 */
+	static Object[] attributesOf(Person person) {
+		return new Object[] {BigDecimal.valueOf(person.getId()), person.getFirstName(), person.getLastName(),
+				BigDecimal.valueOf(person.getAge()), new Timestamp(person.getBirthDate().getTime()), person.getSalary(),
+				person.isActive() ? "1" : "0"};
+	}
+
+	static ResultSetMetaData personTypeMetaData() throws SQLException {
+		String[] names = {"ID", "FIRST_NAME", "LAST_NAME", "AGE", "BIRTH_DATE", "SALARY", "ACTIVE"};
+		int[] types = {Types.NUMERIC, Types.VARCHAR, Types.VARCHAR, Types.NUMERIC, Types.TIMESTAMP, Types.NUMERIC,
+				Types.CHAR};
+		RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+		metaData.setColumnCount(names.length);
+		for (int i = 0; i < names.length; i++) {
+			metaData.setColumnName(i + 1, names[i]);
+			metaData.setColumnLabel(i + 1, names[i]);
+			metaData.setColumnType(i + 1, types[i]);
+		}
+		return metaData;
+	}
+
+
+	/**
+	 * Provides the name and attribute metadata of the stub struct type instead of looking them up with a
+	 * StructDescriptor.
+	 */
+	static class StubMetaDataStructMapper extends BeanPropertyStructMapper<Person> {
+
+		private final ResultSetMetaData metaData;
+
+		StubMetaDataStructMapper() throws SQLException {
+			super(Person.class);
+			this.metaData = personTypeMetaData();
+		}
+
+		@Override
+		protected String getQualifiedTypeName(String typeName, Connection conn) {
+			return typeName;
+		}
+
+		@Override
+		protected ResultSetMetaData getStructMetaData(String typeName, Connection conn) {
+			return metaData;
+		}
+
+		@Override
+		protected ResultSetMetaData getStructMetaData(Struct struct) {
+			return metaData;
+		}
+	}
+
+	public static class Person {
+
+		private Long id;
+
+		private String firstName;
+
+		private String lastName;
+
+		private int age;
+
+		private Date birthDate;
+
+		private BigDecimal salary;
+
+		private boolean active;
+
+		public Long getId() {
+			return id;
+		}
+
+		public void setId(Long id) {
+			this.id = id;
+		}
+
+		public String getFirstName() {
+			return firstName;
+		}
+
+		public void setFirstName(String firstName) {
+			this.firstName = firstName;
+		}
+
+		public String getLastName() {
+			return lastName;
+		}
+
+		public void setLastName(String lastName) {
+			this.lastName = lastName;
+		}
+
+		public int getAge() {
+			return age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+		public Date getBirthDate() {
+			return birthDate;
+		}
+
+		public void setBirthDate(Date birthDate) {
+			this.birthDate = birthDate;
+		}
+
+		public BigDecimal getSalary() {
+			return salary;
+		}
+
+		public void setSalary(BigDecimal salary) {
+			this.salary = salary;
+		}
+
+		public boolean isActive() {
+			return active;
+		}
+
+		public void setActive(boolean active) {
+			this.active = active;
+		}
+	}
+
+}
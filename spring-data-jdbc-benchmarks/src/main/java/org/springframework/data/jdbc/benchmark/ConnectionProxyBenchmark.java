@@ -0,0 +1,113 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.benchmark;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jdbc.config.oracle.AqJmsFactoryBeanFactory;
+import org.springframework.data.jdbc.support.oracle.ProxyConnectionPreparer;
+
+/**
+ * Benchmarks for the overhead the connection proxy {@link java.lang.reflect.InvocationHandler}s add to each call
+ * passed on to the target Connection. The target is a stub, so {@link #direct()} is the baseline the proxied calls
+ * should be compared with.
+ *
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ConnectionProxyBenchmark {
+
+	Connection target;
+
+	Connection userNameProxy;
+
+	Connection closeSuppressingProxy;
+
+	Connection closeDelegatingProxy;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		target = StubConnection.newConnection();
+		userNameProxy = new ExposedProxyConnectionPreparer().wrap(target);
+		ExposedAqJmsFactoryBeanFactory aqFactory = new ExposedAqJmsFactoryBeanFactory();
+		closeSuppressingProxy = aqFactory.suppressClose(target);
+		closeDelegatingProxy = aqFactory.delegateClose(target, target);
+	}
+
+	@Benchmark
+	public boolean direct() throws SQLException {
+		return target.getAutoCommit();
+	}
+
+	@Benchmark
+	public boolean userNameProxy() throws SQLException {
+		return userNameProxy.getAutoCommit();
+	}
+
+	@Benchmark
+	public boolean closeSuppressingProxy() throws SQLException {
+		return closeSuppressingProxy.getAutoCommit();
+	}
+
+	@Benchmark
+	public boolean closeDelegatingProxy() throws SQLException {
+		return closeDelegatingProxy.getAutoCommit();
+	}
+
+	@Benchmark
+	public int userNameProxyHashCode() {
+		return userNameProxy.hashCode();
+	}
+
+
+	static class ExposedProxyConnectionPreparer extends ProxyConnectionPreparer {
+
+		Connection wrap(Connection target) {
+			return getUserNameConnectionProxyWrapper(target);
+		}
+	}
+
+	static class ExposedAqJmsFactoryBeanFactory extends AqJmsFactoryBeanFactory {
+
+		Connection suppressClose(Connection target) {
+			return getCloseSuppressingConnectionProxy(target);
+		}
+
+		Connection delegateClose(Connection target, Connection source) {
+			return getCloseDelegatingConnectionProxy(target, source);
+		}
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.benchmark;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * An {@link Array} holding its elements in memory, used to measure array mapping without a database.
+ *
+ * @since 2.0
+ */
+class InMemoryArray implements Array {
+
+	private final String baseTypeName;
+
+	private final Object[] elements;
+
+	InMemoryArray(String baseTypeName, Object[] elements) {
+		this.baseTypeName = baseTypeName;
+		this.elements = elements;
+	}
+
+	int length() {
+		return elements.length;
+	}
+
+	public String getBaseTypeName() {
+		return baseTypeName;
+	}
+
+	public int getBaseType() {
+		return Types.STRUCT;
+	}
+
+	public Object getArray() {
+		return elements.clone();
+	}
+
+	public Object getArray(Map<String, Class<?>> map) {
+		return getArray();
+	}
+
+	public Object getArray(long index, int count) {
+		int from = (int) index - 1;
+		return Arrays.copyOfRange(elements, from, Math.min(from + count, elements.length));
+	}
+
+	public Object getArray(long index, int count, Map<String, Class<?>> map) {
+		return getArray(index, count);
+	}
+
+	public ResultSet getResultSet() throws SQLException {
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	public ResultSet getResultSet(Map<String, Class<?>> map) throws SQLException {
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	public ResultSet getResultSet(long index, int count) throws SQLException {
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	public ResultSet getResultSet(long index, int count, Map<String, Class<?>> map) throws SQLException {
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	public void free() {
+	}
+
+}
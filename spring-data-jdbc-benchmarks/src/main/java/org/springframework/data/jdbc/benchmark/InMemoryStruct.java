@@ -0,0 +1,50 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.benchmark;
+
+import java.sql.Struct;
+import java.util.Map;
+
+/**
+ * A {@link Struct} holding its attributes in memory, used to measure struct mapping without a database.
+ *
+ * @since 2.0
+ */
+class InMemoryStruct implements Struct {
+
+	private final String typeName;
+
+	private final Object[] attributes;
+
+	InMemoryStruct(String typeName, Object[] attributes) {
+		this.typeName = typeName;
+		this.attributes = attributes;
+	}
+
+	public String getSQLTypeName() {
+		return typeName;
+	}
+
+	public Object[] getAttributes() {
+		return attributes;
+	}
+
+	public Object[] getAttributes(Map<String, Class<?>> map) {
+		return attributes;
+	}
+
+}
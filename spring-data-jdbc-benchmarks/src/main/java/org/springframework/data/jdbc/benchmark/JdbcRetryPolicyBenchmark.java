@@ -0,0 +1,104 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.benchmark;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.jdbc.retry.JdbcRetryPolicy;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.context.RetryContextSupport;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+/**
+ * Benchmarks for {@link JdbcRetryPolicy#canRetry(RetryContext)} with the kinds of exceptions seen after a RAC
+ * failover, wrapped the way Spring's data access and transaction layers wrap them.
+ *
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class JdbcRetryPolicyBenchmark {
+
+	JdbcRetryPolicy policy;
+
+	RetryContext firstAttempt;
+
+	RetryContext recoverableErrorCode;
+
+	RetryContext recoverableException;
+
+	RetryContext notRecoverable;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		policy = new JdbcRetryPolicy();
+		policy.setRecoverableErrorCodes(new Integer[] {1033, 1034, 1089, 17002, 17008, 17410});
+		firstAttempt = new RetryContextSupport(null);
+		recoverableErrorCode = contextFor(new CannotCreateTransactionException("Could not open JDBC Connection",
+				new DataAccessResourceFailureException("Failover in progress",
+						new SQLException("IO Error: Connection reset", "08006", 17002))));
+		recoverableException = contextFor(new SQLRecoverableException("Closed Connection", "08003", 17008));
+		notRecoverable = contextFor(new BadSqlGrammarException("query", "select * from missing",
+				new SQLException("ORA-00942: table or view does not exist", "42000", 942)));
+	}
+
+	private static RetryContext contextFor(Throwable throwable) {
+		RetryContextSupport context = new RetryContextSupport(null);
+		context.registerThrowable(throwable);
+		return context;
+	}
+
+	@Benchmark
+	public boolean firstAttempt() {
+		return policy.canRetry(firstAttempt);
+	}
+
+	@Benchmark
+	public boolean recoverableErrorCode() {
+		return policy.canRetry(recoverableErrorCode);
+	}
+
+	@Benchmark
+	public boolean recoverableException() {
+		return policy.canRetry(recoverableException);
+	}
+
+	@Benchmark
+	public boolean notRecoverable() {
+		return policy.canRetry(notRecoverable);
+	}
+
+}
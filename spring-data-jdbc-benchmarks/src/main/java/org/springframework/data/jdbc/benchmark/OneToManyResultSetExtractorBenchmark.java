@@ -0,0 +1,232 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.benchmark;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jdbc.core.LongKeyOneToManyResultSetExtractor;
+import org.springframework.data.jdbc.core.OneToManyResultSetExtractor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Benchmarks comparing the extraction loops of {@link OneToManyResultSetExtractor} for boxed and primitive keys
+ * against the loop used before keys were read once per row. The join is read from an in-memory HSQLDB database.
+ *
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class OneToManyResultSetExtractorBenchmark {
+
+	static final String QUERY = "select o.id as order_id, o.customer, l.id as line_id, l.order_id as line_order_id, " +
+			"l.product, l.quantity from orders o left join order_line l on o.id = l.order_id order by o.id";
+
+	@Param({"10000"})
+	int orders;
+
+	@Param({"10"})
+	int linesPerOrder;
+
+	EmbeddedDatabase database;
+
+	JdbcTemplate template;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.HSQL).build();
+		template = new JdbcTemplate(database);
+		template.execute("create table orders (id bigint primary key, customer varchar(255))");
+		template.execute("create table order_line (id bigint primary key, order_id bigint, product varchar(255), " +
+				"quantity int)");
+		List<Object[]> orderRows = new ArrayList<Object[]>(orders);
+		List<Object[]> lineRows = new ArrayList<Object[]>(orders * linesPerOrder);
+		for (long o = 1; o <= orders; o++) {
+			orderRows.add(new Object[] {o, "customer-" + o});
+			for (int l = 0; l < linesPerOrder; l++) {
+				lineRows.add(new Object[] {o * linesPerOrder + l, o, "product-" + l, l});
+			}
+		}
+		template.batchUpdate("insert into orders (id, customer) values (?, ?)", orderRows);
+		template.batchUpdate("insert into order_line (id, order_id, product, quantity) values (?, ?, ?, ?)", lineRows);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		database.shutdown();
+	}
+
+	@Benchmark
+	public List<Order> previousLoop() {
+		return template.query(QUERY, new PreviousOrderExtractor());
+	}
+
+	@Benchmark
+	public List<Order> boxedKeys() {
+		return template.query(QUERY, new BoxedOrderExtractor());
+	}
+
+	@Benchmark
+	public List<Order> primitiveKeys() {
+		return template.query(QUERY, new LongKeyOrderExtractor());
+	}
+
+
+	public static class Order {
+
+		long id;
+
+		String customer;
+
+		List<OrderLine> lines = new ArrayList<OrderLine>();
+	}
+
+	public static class OrderLine {
+
+		long id;
+
+		String product;
+
+		int quantity;
+	}
+
+	static class OrderMapper implements RowMapper<Order> {
+
+		public Order mapRow(ResultSet rs, int rowNum) throws SQLException {
+			Order order = new Order();
+			order.id = rs.getLong(1);
+			order.customer = rs.getString(2);
+			return order;
+		}
+	}
+
+	static class OrderLineMapper implements RowMapper<OrderLine> {
+
+		public OrderLine mapRow(ResultSet rs, int rowNum) throws SQLException {
+			OrderLine line = new OrderLine();
+			line.id = rs.getLong(3);
+			line.product = rs.getString(5);
+			line.quantity = rs.getInt(6);
+			return line;
+		}
+	}
+
+	static class BoxedOrderExtractor extends OneToManyResultSetExtractor<Order, OrderLine, Long> {
+
+		BoxedOrderExtractor() {
+			super(new OrderMapper(), new OrderLineMapper());
+		}
+
+		@Override
+		protected Long mapPrimaryKey(ResultSet rs) throws SQLException {
+			return rs.getLong(1);
+		}
+
+		@Override
+		protected Long mapForeignKey(ResultSet rs) throws SQLException {
+			long foreignKey = rs.getLong(4);
+			return rs.wasNull() ? null : foreignKey;
+		}
+
+		@Override
+		protected void addChild(Order root, OrderLine child) {
+			root.lines.add(child);
+		}
+	}
+
+	/**
+	 * Reproduces the extraction loop reading the foreign key twice per row and used as the baseline.
+	 */
+	static class PreviousOrderExtractor extends BoxedOrderExtractor {
+
+		@Override
+		protected void processOrderedAggregates(ResultSet rs, AggregateAssembler<Order> assembler) throws SQLException {
+			int row = 0;
+			boolean more = rs.next();
+			if (more) {
+				row++;
+			}
+			while (more) {
+				Order root = rootMapper.mapRow(rs, row);
+				Long primaryKey = mapPrimaryKey(rs);
+				if (mapForeignKey(rs) != null) {
+					while (more && primaryKey.equals(mapForeignKey(rs))) {
+						addChild(root, childMapper.mapRow(rs, row));
+						more = rs.next();
+						if (more) {
+							row++;
+						}
+					}
+				}
+				else {
+					more = rs.next();
+					if (more) {
+						row++;
+					}
+				}
+				assembler.completeAggregate(root);
+			}
+		}
+	}
+
+	static class LongKeyOrderExtractor extends LongKeyOneToManyResultSetExtractor<Order, OrderLine> {
+
+		LongKeyOrderExtractor() {
+			super(new OrderMapper(), new OrderLineMapper());
+		}
+
+		@Override
+		protected long mapPrimaryKeyAsLong(ResultSet rs) throws SQLException {
+			return rs.getLong(1);
+		}
+
+		@Override
+		protected long mapForeignKeyAsLong(ResultSet rs) throws SQLException {
+			return rs.getLong(4);
+		}
+
+		@Override
+		protected void addChild(Order root, OrderLine child) {
+			root.lines.add(child);
+		}
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jdbc.benchmark.BeanPropertyStructMapperBenchmark.Person;
+import org.springframework.data.jdbc.benchmark.BeanPropertyStructMapperBenchmark.StubMetaDataStructMapper;
+import org.springframework.data.jdbc.support.oracle.SqlArrayBulkUpdate;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Benchmarks comparing row by row JDBC batching with binding the rows as one array per chunk through
+ * {@link SqlArrayBulkUpdate}. The connection and statements are in-memory stubs, so the numbers reflect the client
+ * side cost of binding the rows, one bind per column and row against one array bind per chunk, and not the round
+ * trips to the database.
+ *
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SqlArrayBulkUpdateBenchmark {
+
+	static final String INSERT = "insert into person (id, first_name, last_name, age, birth_date, salary, active) " +
+			"values (?, ?, ?, ?, ?, ?, ?)";
+
+	static final String INSERT_SELECT = "insert into person (id, first_name, last_name, age, birth_date, salary, " +
+			"active) select t.id, t.first_name, t.last_name, t.age, t.birth_date, t.salary, t.active from table(?) t";
+
+	@Param({"100000"})
+	int rows;
+
+	@Param({"10000"})
+	int chunkSize;
+
+	JdbcTemplate template;
+
+	SqlArrayBulkUpdate<Person> bulkUpdate;
+
+	List<Person> people;
+
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		SingleConnectionDataSource dataSource = new SingleConnectionDataSource(StubConnection.newConnection(), true);
+		template = new JdbcTemplate(dataSource);
+		bulkUpdate = new SqlArrayBulkUpdate<Person>(dataSource, INSERT_SELECT, new StubMetaDataStructMapper(),
+				BeanPropertyStructMapperBenchmark.TYPE_NAME, "PERSON_TYPE_TAB");
+		bulkUpdate.setChunkSize(chunkSize);
+		people = new ArrayList<Person>(rows);
+		for (int i = 0; i < rows; i++) {
+			Person person = new Person();
+			person.setId((long) i);
+			person.setFirstName("first-" + i);
+			person.setLastName("last-" + i);
+			person.setAge(i % 100);
+			person.setBirthDate(new Date());
+			person.setSalary(BigDecimal.valueOf(i));
+			person.setActive(i % 2 == 0);
+			people.add(person);
+		}
+	}
+
+	@Benchmark
+	public int[] rowByRowBatch() {
+		return template.batchUpdate(INSERT, new BatchPreparedStatementSetter() {
+
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				Person person = people.get(i);
+				ps.setLong(1, person.getId());
+				ps.setString(2, person.getFirstName());
+				ps.setString(3, person.getLastName());
+				ps.setInt(4, person.getAge());
+				ps.setTimestamp(5, new Timestamp(person.getBirthDate().getTime()));
+				ps.setBigDecimal(6, person.getSalary());
+				ps.setString(7, person.isActive() ? "1" : "0");
+			}
+
+			public int getBatchSize() {
+				return people.size();
+			}
+		});
+	}
+
+	@Benchmark
+	public int[] arrayBound() {
+		return bulkUpdate.update(people);
+	}
+
+}
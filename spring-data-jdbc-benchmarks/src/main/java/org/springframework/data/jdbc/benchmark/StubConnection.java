@@ -0,0 +1,88 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+
+/**
+ * A Connection stub creating {@link InMemoryStruct}s and {@link InMemoryArray}s and preparing
+ * {@link StubPreparedStatement}s. It implements the Oracle connection interface so that the Oracle specific array
+ * values can be bound. Apart from that it only supports the handful of methods called by the benchmarks.
+ *
+ * @since 2.0
+ */
+class StubConnection implements InvocationHandler {
+
+	private boolean closed;
+
+	static Connection newConnection() {
+		return (Connection) Proxy.newProxyInstance(StubConnection.class.getClassLoader(),
+				new Class<?>[] {Connection.class, oracle.jdbc.driver.OracleConnection.class}, new StubConnection());
+	}
+
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		String name = method.getName();
+		if (name.equals("createStruct")) {
+			return new InMemoryStruct((String) args[0], (Object[]) args[1]);
+		}
+		if (name.equals("createArrayOf") || (name.equals("createOracleArray") && args[1] instanceof Object[])) {
+			return new InMemoryArray((String) args[0], (Object[]) args[1]);
+		}
+		if (name.equals("prepareStatement") && args.length == 1) {
+			return StubPreparedStatement.newPreparedStatement((Connection) proxy);
+		}
+		if (name.equals("getMetaData")) {
+			return Proxy.newProxyInstance(StubConnection.class.getClassLoader(),
+					new Class<?>[] {DatabaseMetaData.class}, new InvocationHandler() {
+						public Object invoke(Object proxy, Method method, Object[] args) {
+							if (method.getName().equals("supportsBatchUpdates")) {
+								return Boolean.TRUE;
+							}
+							throw new UnsupportedOperationException(method.getName());
+						}
+					});
+		}
+		if (name.equals("getAutoCommit")) {
+			return Boolean.TRUE;
+		}
+		if (name.equals("isReadOnly")) {
+			return Boolean.FALSE;
+		}
+		if (name.equals("isClosed")) {
+			return closed;
+		}
+		if (name.equals("close")) {
+			closed = true;
+			return null;
+		}
+		if (name.equals("equals")) {
+			return proxy == args[0];
+		}
+		if (name.equals("hashCode")) {
+			return System.identityHashCode(proxy);
+		}
+		if (name.equals("toString")) {
+			return "StubConnection";
+		}
+		throw new UnsupportedOperationException(name);
+	}
+
+}
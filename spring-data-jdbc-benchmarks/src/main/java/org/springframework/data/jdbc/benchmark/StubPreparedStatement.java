@@ -0,0 +1,91 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+
+/**
+ * A PreparedStatement stub accepting any parameter value without converting it. An update reports one affected
+ * row, or the length of the bound array, and a batch reports one affected row per batched set of parameters.
+ *
+ * @since 2.0
+ */
+class StubPreparedStatement implements InvocationHandler {
+
+	private final Connection connection;
+
+	private int rows = 1;
+
+	private int batchSize;
+
+	private StubPreparedStatement(Connection connection) {
+		this.connection = connection;
+	}
+
+	static PreparedStatement newPreparedStatement(Connection connection) {
+		return (PreparedStatement) Proxy.newProxyInstance(StubPreparedStatement.class.getClassLoader(),
+				new Class<?>[] {PreparedStatement.class}, new StubPreparedStatement(connection));
+	}
+
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		String name = method.getName();
+		if (name.startsWith("set") && args != null && args.length >= 2) {
+			if (args[1] instanceof InMemoryArray) {
+				rows = ((InMemoryArray) args[1]).length();
+			}
+			return null;
+		}
+		if (name.equals("addBatch")) {
+			batchSize++;
+			return null;
+		}
+		if (name.equals("executeBatch")) {
+			int[] counts = new int[batchSize];
+			Arrays.fill(counts, 1);
+			batchSize = 0;
+			return counts;
+		}
+		if (name.equals("executeUpdate")) {
+			return rows;
+		}
+		if (name.equals("getConnection")) {
+			return connection;
+		}
+		if (name.equals("getWarnings")) {
+			return null;
+		}
+		if (name.equals("clearParameters") || name.equals("clearBatch") || name.equals("close")) {
+			return null;
+		}
+		if (name.equals("equals")) {
+			return proxy == args[0];
+		}
+		if (name.equals("hashCode")) {
+			return System.identityHashCode(proxy);
+		}
+		if (name.equals("toString")) {
+			return "StubPreparedStatement";
+		}
+		throw new UnsupportedOperationException(name);
+	}
+
+}
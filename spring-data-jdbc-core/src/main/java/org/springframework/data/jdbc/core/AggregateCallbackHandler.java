@@ -0,0 +1,42 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.core;
+
+import java.sql.SQLException;
+
+/**
+ * Callback interface used by {@link OneToManyResultSetExtractor} to hand over each completed root object as soon as
+ * all of its child rows have been read. This allows processing of joins of arbitrary size while only holding a single
+ * aggregate in memory at a time.
+ *
+ * @since 2.0
+ * @see OneToManyResultSetExtractor#extractData(java.sql.ResultSet, AggregateCallbackHandler)
+ * @see org.springframework.jdbc.core.RowCallbackHandler
+ */
+public interface AggregateCallbackHandler<R> {
+
+	/**
+	 * Process a completed root object including all of its children.
+	 * The ResultSet is already positioned on the row following the aggregate
+	 * and must not be accessed by implementations.
+	 *
+	 * @param root the completed root object
+	 * @throws SQLException if a SQLException is encountered processing the aggregate
+	 */
+	void processAggregate(R root) throws SQLException;
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.core;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+
+/**
+ * The column label to column index mapping of a ResultSet, resolved once from its {@link ResultSetMetaData} so that
+ * mappers can read columns by index instead of making the driver search the column list for a label on every row.
+ * <p>
+ * Columns can be looked up by their label and by their label qualified with the table name, e.g.
+ * <code>"customer.id"</code>. Lookups are case-insensitive; labels in their original, lower or upper case are found
+ * without creating a new String. Like {@link ResultSet#findColumn(String)}, the first matching column wins.
+ * <p>
+ * A ColumnIndex is immutable and can be shared between threads.
+ *
+ * @since 2.0
+ * @see ColumnIndexRowMapper
+ */
+public final class ColumnIndex {
+
+	private final int columnCount;
+
+	private final Map<String, Integer> indexes;
+
+
+	/**
+	 * Create a new ColumnIndex for the columns described by the given ResultSetMetaData.
+	 * @param rsmd the ResultSetMetaData of the ResultSet
+	 * @throws SQLException
+	 */
+	public ColumnIndex(ResultSetMetaData rsmd) throws SQLException {
+		this.columnCount = rsmd.getColumnCount();
+		this.indexes = new HashMap<String, Integer>(columnCount * 8);
+		for (int i = 1; i <= columnCount; i++) {
+			String label = JdbcUtils.lookupColumnName(rsmd, i);
+			addIndex(label, i);
+			String tableName = rsmd.getTableName(i);
+			if (tableName != null && tableName.length() > 0) {
+				addIndex(tableName + "." + label, i);
+			}
+		}
+	}
+
+	private void addIndex(String label, int index) {
+		putIfAbsent(label, index);
+		putIfAbsent(label.toLowerCase(), index);
+		putIfAbsent(label.toUpperCase(), index);
+	}
+
+	private void putIfAbsent(String label, int index) {
+		if (!indexes.containsKey(label)) {
+			indexes.put(label, index);
+		}
+	}
+
+	/**
+	 * Return the number of columns.
+	 */
+	public int getColumnCount() {
+		return this.columnCount;
+	}
+
+	/**
+	 * Return whether a column with the given label exists.
+	 * @param columnLabel the column label, optionally qualified with the table name
+	 */
+	public boolean hasColumn(String columnLabel) {
+		return lookup(columnLabel) != null;
+	}
+
+	/**
+	 * Return the 1-based index of the column with the given label.
+	 * @param columnLabel the column label, optionally qualified with the table name
+	 * @return the column index
+	 * @throws SQLException if there is no column with the given label
+	 */
+	public int getIndex(String columnLabel) throws SQLException {
+		Integer index = lookup(columnLabel);
+		if (index == null) {
+			throw new SQLException("Invalid column label: " + columnLabel);
+		}
+		return index;
+	}
+
+	private Integer lookup(String columnLabel) {
+		Integer index = indexes.get(columnLabel);
+		if (index == null) {
+			index = indexes.get(columnLabel.toLowerCase());
+		}
+		return index;
+	}
+
+	/**
+	 * Map the current row with the given RowMapper, passing this ColumnIndex if it is a {@link ColumnIndexRowMapper}.
+	 */
+	<T> T mapRow(RowMapper<T> mapper, ResultSet rs, int rowNum) throws SQLException {
+		if (mapper instanceof ColumnIndexRowMapper) {
+			return ((ColumnIndexRowMapper<T>) mapper).mapRow(rs, rowNum, this);
+		}
+		return mapper.mapRow(rs, rowNum);
+	}
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.core;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * A {@link RowMapper} that reads columns by index using a {@link ColumnIndex} resolved once per ResultSet. The
+ * {@link OneToManyResultSetExtractor} and {@link NestedResultSetExtractor} call
+ * {@link #mapRow(ResultSet, int, ColumnIndex)} instead of {@link #mapRow(ResultSet, int)} for mappers implementing
+ * this interface.
+ * <p>
+ * For example:
+ *
+ * <pre class="code">
+ * public Address mapRow(ResultSet rs, int rowNum, ColumnIndex columns) throws SQLException {
+ *     Address a = new Address();
+ *     a.setId(rs.getInt(columns.getIndex("address.id")));
+ *     a.setStreet(rs.getString(columns.getIndex("address.street")));
+ *     return a;
+ * }
+ * </pre>
+ *
+ * @since 2.0
+ */
+public interface ColumnIndexRowMapper<T> extends RowMapper<T> {
+
+	/**
+	 * Map the current row of the ResultSet, reading columns by the indexes of the given {@link ColumnIndex}.
+	 * This method should not call <code>next()</code> on the ResultSet.
+	 *
+	 * @param rs the ResultSet to map
+	 * @param rowNum the number of the current row
+	 * @param columnIndex the column indexes of the ResultSet
+	 * @return the result object for the current row
+	 * @throws SQLException if a SQLException is encountered getting column values
+	 */
+	T mapRow(ResultSet rs, int rowNum, ColumnIndex columnIndex) throws SQLException;
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.core;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * A {@link OneToManyResultSetExtractor} for root tables with a numeric primary key. The keys are read as primitive
+ * <code>long</code> values so the extraction loop does not allocate a boxed key for each row.
+ * <p>
+ * Subclasses implement {@link #mapPrimaryKeyAsLong(ResultSet)} and {@link #mapForeignKeyAsLong(ResultSet)} instead of
+ * the boxed {@link #mapPrimaryKey(ResultSet)} and {@link #mapForeignKey(ResultSet)} variants.
+ *
+ * @since 2.0
+ */
+public abstract class LongKeyOneToManyResultSetExtractor<R, C> extends OneToManyResultSetExtractor<R, C, Long> {
+
+	/**
+	 * Creates a new {@link LongKeyOneToManyResultSetExtractor} from the given {@link RowMapper}s.
+	 *
+	 * @param rootMapper {@link RowMapper} to map the root entity, must not be {@literal null}.
+	 * @param childMapper {@link RowMapper} to map the root entities, must not be {@literal null}.
+	 */
+	public LongKeyOneToManyResultSetExtractor(RowMapper<R> rootMapper, RowMapper<C> childMapper) {
+		super(rootMapper, childMapper);
+	}
+
+	/**
+	 * Creates a new {@link LongKeyOneToManyResultSetExtractor} from the given {@link RowMapper}s and
+	 * {@link ExpectedResults}.
+	 *
+	 * @param rootMapper {@link RowMapper} to map the root entity, must not be {@literal null}.
+	 * @param childMapper {@link RowMapper} to map the root entities, must not be {@literal null}.
+	 * @param expectedResults
+	 */
+	public LongKeyOneToManyResultSetExtractor(RowMapper<R> rootMapper, RowMapper<C> childMapper,
+			ExpectedResults expectedResults) {
+		super(rootMapper, childMapper, expectedResults);
+	}
+
+	@Override
+	protected void processOrderedAggregates(ResultSet rs, AggregateAssembler<R> assembler) throws SQLException {
+		int row = 0;
+		R root = null;
+		long primaryKey = 0;
+		ColumnIndex columnIndex = null;
+		while (rs.next()) {
+			row++;
+			if (columnIndex == null) {
+				columnIndex = new ColumnIndex(rs.getMetaData());
+			}
+			long foreignKey = mapForeignKeyAsLong(rs, columnIndex);
+			boolean hasForeignKey = !rs.wasNull();
+			if (root == null || !hasForeignKey || foreignKey != primaryKey) {
+				if (root != null) {
+					assembler.completeAggregate(root);
+				}
+				root = mapRoot(rs, row, columnIndex);
+				primaryKey = mapPrimaryKeyAsLong(rs, columnIndex);
+				if (!hasForeignKey || foreignKey != primaryKey) {
+					continue;
+				}
+			}
+			assembler.addChildRow(root, rs, row, columnIndex);
+		}
+		if (root != null) {
+			assembler.completeAggregate(root);
+		}
+	}
+
+	@Override
+	protected final Long mapPrimaryKey(ResultSet rs) throws SQLException {
+		return mapPrimaryKeyAsLong(rs);
+	}
+
+	@Override
+	protected final Long mapForeignKey(ResultSet rs) throws SQLException {
+		long foreignKey = mapForeignKeyAsLong(rs);
+		return rs.wasNull() ? null : foreignKey;
+	}
+
+	@Override
+	protected final Long mapPrimaryKey(ResultSet rs, ColumnIndex columnIndex) throws SQLException {
+		return mapPrimaryKeyAsLong(rs, columnIndex);
+	}
+
+	@Override
+	protected final Long mapForeignKey(ResultSet rs, ColumnIndex columnIndex) throws SQLException {
+		long foreignKey = mapForeignKeyAsLong(rs, columnIndex);
+		return rs.wasNull() ? null : foreignKey;
+	}
+
+	/**
+	 * Map the primary key value of the current row.
+	 * This method must be implemented by subclasses.
+	 * This method should not call <code>next()</code> on
+	 * the ResultSet; it is only supposed to map values of the current row.
+	 *
+	 * @param rs the ResultSet
+	 * @return the primary key value
+	 * @throws SQLException
+	 */
+	protected abstract long mapPrimaryKeyAsLong(ResultSet rs) throws SQLException;
+
+	/**
+	 * Map the foreign key value of the current row, typically using <code>rs.getLong(...)</code>.
+	 * This method must be implemented by subclasses.
+	 * A SQL <code>NULL</code> foreign key is detected by calling <code>wasNull()</code> on the ResultSet
+	 * right after this method returns, so the foreign key column must be the last column read.
+	 * This method should not call <code>next()</code> on
+	 * the ResultSet; it is only supposed to map values of the current row.
+	 *
+	 * @param rs the ResultSet
+	 * @return the foreign key value
+	 * @throws SQLException
+	 */
+	protected abstract long mapForeignKeyAsLong(ResultSet rs) throws SQLException;
+
+	/**
+	 * Map the primary key value of the current row using the column indexes resolved for the ResultSet.
+	 * The default implementation delegates to {@link #mapPrimaryKeyAsLong(ResultSet)}.
+	 *
+	 * @param rs the ResultSet
+	 * @param columnIndex the column indexes of the ResultSet
+	 * @return the primary key value
+	 * @throws SQLException
+	 */
+	protected long mapPrimaryKeyAsLong(ResultSet rs, ColumnIndex columnIndex) throws SQLException {
+		return mapPrimaryKeyAsLong(rs);
+	}
+
+	/**
+	 * Map the foreign key value of the current row using the column indexes resolved for the ResultSet.
+	 * The default implementation delegates to {@link #mapForeignKeyAsLong(ResultSet)}. As for that method, the foreign
+	 * key column must be the last column read.
+	 *
+	 * @param rs the ResultSet
+	 * @param columnIndex the column indexes of the ResultSet
+	 * @return the foreign key value
+	 * @throws SQLException
+	 */
+	protected long mapForeignKeyAsLong(ResultSet rs, ColumnIndex columnIndex) throws SQLException {
+		return mapForeignKeyAsLong(rs);
+	}
+
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.core;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.jdbc.core.OneToManyResultSetExtractor.ExpectedResults;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.util.Assert;
+
+/**
+ * A results extractor that rebuilds a multi-level object tree, such as "a Customer has many Orders and each Order has
+ * many OrderLines", from a single flattened join in one pass over the ResultSet. This is the multi-level counterpart
+ * to {@link OneToManyResultSetExtractor}.
+ * <p>
+ * Each {@link Level} describes one step of the chain from the root type down to the deepest child type. It maps the
+ * key of the object at that level and the object itself. The top of the chain is a {@link RootLevel}; every level
+ * below it is a {@link ChildLevel}, which also adds the object to its parent from the level above. The rows must be
+ * ordered by the keys of all levels, starting with the root, so that all rows belonging to one object are adjacent.
+ * A {@literal null} key signals that the row has no object at that level, as produced by a left join, which also means
+ * there is no object at any deeper level.
+ * <p>
+ * For each level the extractor tracks the key and the object currently being assembled; a new object is only mapped
+ * when the key at its level changes, so no additional objects are allocated per row beyond the mapped objects. The
+ * column indexes are resolved once and passed to {@link Level#mapKey(ResultSet, ColumnIndex)} and to mappers
+ * implementing {@link ColumnIndexRowMapper}.
+ * <p>
+ * For example:
+ *
+ * <pre class="code">
+ * NestedResultSetExtractor&lt;Customer&gt; extractor = new NestedResultSetExtractor&lt;Customer&gt;(
+ *     new RootLevel&lt;Customer, Long&gt;(customerMapper) {
+ *         protected Long mapKey(ResultSet rs) throws SQLException {
+ *             return rs.getLong("customer_id");
+ *         }
+ *     },
+ *     new ChildLevel&lt;Customer, Order, Long&gt;(orderMapper) {
+ *         protected Long mapKey(ResultSet rs) throws SQLException {
+ *             long id = rs.getLong("order_id");
+ *             return rs.wasNull() ? null : id;
+ *         }
+ *         protected void addChild(Customer customer, Order order) {
+ *             customer.addOrder(order);
+ *         }
+ *     },
+ *     new ChildLevel&lt;Order, OrderLine, Long&gt;(orderLineMapper) {
+ *         ...
+ *     });
+ * </pre>
+ *
+ * @since 2.0
+ * @see OneToManyResultSetExtractor
+ */
+public class NestedResultSetExtractor<R> implements ResultSetExtractor<List<R>> {
+
+	protected final ExpectedResults expectedResults;
+	protected final Level<?, ?>[] levels;
+
+	/**
+	 * Creates a new {@link NestedResultSetExtractor} from the given {@link Level}s.
+	 *
+	 * @param rootLevel the {@link RootLevel} mapping the root entity, must not be {@literal null}.
+	 * @param childLevels the {@link ChildLevel}s mapping the child entities, each one a child of the previous level,
+	 *          must not contain {@literal null} elements.
+	 */
+	public NestedResultSetExtractor(RootLevel<R, ?> rootLevel, ChildLevel<?, ?, ?>... childLevels) {
+		this(null, rootLevel, childLevels);
+	}
+
+	/**
+	 * Creates a new {@link NestedResultSetExtractor} from the given {@link ExpectedResults} and {@link Level}s.
+	 *
+	 * @param expectedResults
+	 * @param rootLevel the {@link RootLevel} mapping the root entity, must not be {@literal null}.
+	 * @param childLevels the {@link ChildLevel}s mapping the child entities, each one a child of the previous level,
+	 *          must not contain {@literal null} elements.
+	 */
+	public NestedResultSetExtractor(ExpectedResults expectedResults, RootLevel<R, ?> rootLevel,
+			ChildLevel<?, ?, ?>... childLevels) {
+
+		Assert.notNull(rootLevel, "Root Level must not be null!");
+		Assert.noNullElements(childLevels, "Child Levels must not be null!");
+
+		this.levels = new Level<?, ?>[childLevels.length + 1];
+		this.levels[0] = rootLevel;
+		System.arraycopy(childLevels, 0, this.levels, 1, childLevels.length);
+		this.expectedResults = expectedResults == null ? ExpectedResults.ANY : expectedResults;
+	}
+
+	public List<R> extractData(ResultSet rs) throws SQLException, DataAccessException {
+		final List<R> results = new ArrayList<R>();
+		processAggregates(rs, new AggregateCallbackHandler<R>() {
+			public void processAggregate(R root) {
+				results.add(root);
+			}
+		});
+		verifyResultSize(results.size());
+		return results;
+	}
+
+	/**
+	 * Extract the root objects from the ResultSet handing each one to the provided {@link AggregateCallbackHandler}
+	 * as soon as the complete tree below it has been read.
+	 *
+	 * @param rs the ResultSet to extract data from
+	 * @param callbackHandler the {@link AggregateCallbackHandler} to pass each completed root object to, must not be
+	 *          {@literal null}.
+	 * @return the number of root objects passed to the callback handler
+	 * @throws SQLException if a SQLException is encountered getting column values or navigating
+	 * @throws DataAccessException in case of custom exceptions
+	 * @see OneToManyResultSetExtractor#extractData(ResultSet, AggregateCallbackHandler)
+	 */
+	public int extractData(ResultSet rs, final AggregateCallbackHandler<R> callbackHandler)
+			throws SQLException, DataAccessException {
+
+		Assert.notNull(callbackHandler, "AggregateCallbackHandler must not be null!");
+
+		final boolean atMostOne =
+				expectedResults == ExpectedResults.ONE_AND_ONLY_ONE || expectedResults == ExpectedResults.ONE_OR_NONE;
+		final int[] count = new int[1];
+		processAggregates(rs, new AggregateCallbackHandler<R>() {
+			public void processAggregate(R root) throws SQLException {
+				count[0]++;
+				if (atMostOne && count[0] > 1) {
+					throw new IncorrectResultSizeDataAccessException(1, count[0]);
+				}
+				callbackHandler.processAggregate(root);
+			}
+		});
+		verifyResultSize(count[0]);
+		return count[0];
+	}
+
+	/**
+	 * Read all rows of the ResultSet, passing each root object to the callback handler once the rows for the next
+	 * root object are reached or the ResultSet is exhausted.
+	 *
+	 * @param rs the ResultSet
+	 * @param callbackHandler the handler receiving the completed root objects
+	 * @throws SQLException
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	protected void processAggregates(ResultSet rs, AggregateCallbackHandler<R> callbackHandler) throws SQLException {
+		int depth = levels.length;
+		Object[] keys = new Object[depth];
+		Object[] current = new Object[depth];
+		int row = 0;
+		ColumnIndex columnIndex = null;
+		while (rs.next()) {
+			row++;
+			if (columnIndex == null) {
+				columnIndex = new ColumnIndex(rs.getMetaData());
+			}
+			for (int i = 0; i < depth; i++) {
+				Level<?, ?> level = levels[i];
+				Object key = level.mapKey(rs, columnIndex);
+				if (key == null) {
+					if (i == 0 && current[0] != null) {
+						callbackHandler.processAggregate((R) current[0]);
+					}
+					// no object at this level, clear the deeper levels so they start over for the next parent
+					for (int j = i; j < depth; j++) {
+						keys[j] = null;
+						current[j] = null;
+					}
+					break;
+				}
+				if (current[i] != null && key.equals(keys[i])) {
+					continue;
+				}
+				Object object = columnIndex.mapRow(level.mapper, rs, row);
+				if (i == 0) {
+					if (current[0] != null) {
+						callbackHandler.processAggregate((R) current[0]);
+					}
+				}
+				else {
+					((ChildLevel) level).addChild(current[i - 1], object);
+				}
+				keys[i] = key;
+				current[i] = object;
+				for (int j = i + 1; j < depth; j++) {
+					keys[j] = null;
+					current[j] = null;
+				}
+			}
+		}
+		if (current[0] != null) {
+			callbackHandler.processAggregate((R) current[0]);
+		}
+	}
+
+	private void verifyResultSize(int size) {
+		if ((expectedResults == ExpectedResults.ONE_AND_ONLY_ONE || expectedResults == ExpectedResults.ONE_OR_NONE) &&
+				size > 1) {
+			throw new IncorrectResultSizeDataAccessException(1, size);
+		}
+		if ((expectedResults == ExpectedResults.ONE_AND_ONLY_ONE || expectedResults == ExpectedResults.AT_LEAST_ONE) &&
+				size < 1) {
+			throw new IncorrectResultSizeDataAccessException(1, 0);
+		}
+	}
+
+
+	/**
+	 * One level of the object tree, mapping objects of type T identified by keys of type K.
+	 * Use {@link RootLevel} for the top of the tree and {@link ChildLevel} for the levels below it.
+	 */
+	public static abstract class Level<T, K> {
+
+		protected final RowMapper<T> mapper;
+
+		Level(RowMapper<T> mapper) {
+			Assert.notNull(mapper, "RowMapper must not be null!");
+			this.mapper = mapper;
+		}
+
+		/**
+		 * Map the key identifying the object at this level.
+		 * This method must be implemented by subclasses.
+		 * This method should not call <code>next()</code> on
+		 * the ResultSet; it is only supposed to map values of the current row.
+		 *
+		 * @param rs the ResultSet
+		 * @return the key value or {@literal null} if the current row has no object at this level
+		 * @throws SQLException
+		 */
+		protected abstract K mapKey(ResultSet rs) throws SQLException;
+
+		/**
+		 * Map the key identifying the object at this level using the column indexes resolved for the ResultSet.
+		 * The default implementation delegates to {@link #mapKey(ResultSet)}.
+		 *
+		 * @param rs the ResultSet
+		 * @param columnIndex the column indexes of the ResultSet
+		 * @return the key value or {@literal null} if the current row has no object at this level
+		 * @throws SQLException
+		 */
+		protected K mapKey(ResultSet rs, ColumnIndex columnIndex) throws SQLException {
+			return mapKey(rs);
+		}
+	}
+
+	/**
+	 * The top level of the object tree, mapping the root objects of type T identified by keys of type K.
+	 */
+	public static abstract class RootLevel<T, K> extends Level<T, K> {
+
+		/**
+		 * Creates a new {@link RootLevel} from the given {@link RowMapper}.
+		 *
+		 * @param mapper {@link RowMapper} to map the root entity, must not be {@literal null}.
+		 */
+		public RootLevel(RowMapper<T> mapper) {
+			super(mapper);
+		}
+	}
+
+	/**
+	 * A level below the root of the object tree, mapping objects of type T that are children of parent objects of
+	 * type P and identified by keys of type K.
+	 */
+	public static abstract class ChildLevel<P, T, K> extends Level<T, K> {
+
+		/**
+		 * Creates a new {@link ChildLevel} from the given {@link RowMapper}.
+		 *
+		 * @param mapper {@link RowMapper} to map the entity at this level, must not be {@literal null}.
+		 */
+		public ChildLevel(RowMapper<T> mapper) {
+			super(mapper);
+		}
+
+		/**
+		 * Add the object at this level to its parent object.
+		 * This method must be implemented by subclasses.
+		 *
+		 * @param parent the parent object from the level above
+		 * @param child the object mapped at this level
+		 */
+		protected abstract void addChild(P parent, T child);
+	}
+
+}
@@ -18,11 +18,22 @@ package org.springframework.data.jdbc.core;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.util.Assert;
@@ -37,6 +48,22 @@ import org.springframework.util.Assert;
  * For example, consider the relationship: "a Customer has one-to-many Addresses". When joining the Customer table with
  * the Address table to build a Customer object, multiple rows would be returned for a Customer if it has more than one
  * Address. This extractor is useful in that case.
+ * <p>
+ * Besides returning all root objects as a List, the extractor can hand each root object to an
+ * {@link AggregateCallbackHandler} as soon as its rows have been read, see {@link #streamAggregates}.
+ * <p>
+ * By default the rows are expected to be ordered by the root table's primary key. When sorting the join is too
+ * expensive, {@link #setOrderedByKey(boolean) orderedByKey} can be set to {@literal false}; the root objects are then
+ * grouped by their primary key in a hash map and only handed out once all rows have been read.
+ * <p>
+ * The column labels of the ResultSet are resolved to column indexes once, on the first row, and passed to
+ * {@link #mapPrimaryKey(ResultSet, ColumnIndex)}, {@link #mapForeignKey(ResultSet, ColumnIndex)} and to root and child
+ * mappers implementing {@link ColumnIndexRowMapper}, so that wide joins can be read without a label lookup per column
+ * and row.
+ * <p>
+ * When the child {@link RowMapper} is expensive, a {@link #setChildMappingExecutor(Executor) childMappingExecutor}
+ * can be configured. The child rows are then copied into buffers on the reading thread and mapped in batches by the
+ * executor while the ResultSet is still being read; the root objects are still handed out in their original order.
  * 
  * @author Thomas Risberg
  * @author Keith Donald
@@ -56,6 +83,16 @@ public abstract class OneToManyResultSetExtractor<R, C, K> implements ResultSetE
 	protected final RowMapper<R> rootMapper;
 	protected final RowMapper<C> childMapper;
 
+	private boolean orderedByKey = true;
+
+	private int expectedRootCount = 16;
+
+	private Executor childMappingExecutor;
+
+	private int childMappingBatchSize = 256;
+
+	private int maxPendingBatches = Runtime.getRuntime().availableProcessors() * 2;
+
 	/**
 	 * Creates a new {@link OneToManyResultSetExtractor} from the given {@link RowMapper}s.
 	 * 
@@ -83,42 +120,283 @@ public abstract class OneToManyResultSetExtractor<R, C, K> implements ResultSetE
 		this.expectedResults = expectedResults == null ? ExpectedResults.ANY : expectedResults;
 	}
 
+	/**
+	 * Set whether the rows are ordered by the root table's primary key. Default is {@literal true}.
+	 * <p>
+	 * Set this to {@literal false} to accept rows in any order. The root objects are then tracked in a map keyed by
+	 * their primary key, so all root objects are held in memory and are only passed on, in the order they were first
+	 * encountered, once all rows have been read.
+	 *
+	 * @see #setExpectedRootCount(int)
+	 */
+	public void setOrderedByKey(boolean orderedByKey) {
+		this.orderedByKey = orderedByKey;
+	}
+
+	/**
+	 * Return whether the rows are expected to be ordered by the root table's primary key.
+	 */
+	public boolean isOrderedByKey() {
+		return this.orderedByKey;
+	}
+
+	/**
+	 * Set the number of root objects expected when the rows are not ordered by key. Used to size the map holding the
+	 * root objects so it doesn't need to be resized while reading the rows. Default is 16.
+	 *
+	 * @see #setOrderedByKey(boolean)
+	 */
+	public void setExpectedRootCount(int expectedRootCount) {
+		Assert.isTrue(expectedRootCount >= 0, "Expected root count must not be negative!");
+		this.expectedRootCount = expectedRootCount;
+	}
+
+	/**
+	 * Return the number of root objects expected when the rows are not ordered by key.
+	 */
+	public int getExpectedRootCount() {
+		return this.expectedRootCount;
+	}
+
+	/**
+	 * Set the {@link Executor} used to map the child rows, for example a {@link java.util.concurrent.ForkJoinPool} or
+	 * a Spring {@link org.springframework.core.task.TaskExecutor}. Default is none, mapping the child rows on the
+	 * thread reading the ResultSet.
+	 * <p>
+	 * When set, the column values of the child rows are copied on the reading thread and the child {@link RowMapper}
+	 * and {@link #addChild} are invoked by the executor for batches of root objects, so both must be thread-safe
+	 * with respect to different root objects. The child RowMapper is passed a read-only ResultSet positioned on the
+	 * buffered row, supporting the typed getters by column index and label. Parallel child mapping requires the rows
+	 * to be {@link #setOrderedByKey(boolean) ordered by key}.
+	 *
+	 * @see #setChildMappingBatchSize(int)
+	 * @see #setMaxPendingBatches(int)
+	 */
+	public void setChildMappingExecutor(Executor childMappingExecutor) {
+		this.childMappingExecutor = childMappingExecutor;
+	}
+
+	/**
+	 * Return the {@link Executor} used to map the child rows, if any.
+	 */
+	public Executor getChildMappingExecutor() {
+		return this.childMappingExecutor;
+	}
+
+	/**
+	 * Set the number of buffered rows handed to the child mapping executor as one batch. Default is 256.
+	 */
+	public void setChildMappingBatchSize(int childMappingBatchSize) {
+		Assert.isTrue(childMappingBatchSize > 0, "Child mapping batch size must be greater than 0!");
+		this.childMappingBatchSize = childMappingBatchSize;
+	}
+
+	/**
+	 * Return the number of buffered rows handed to the child mapping executor as one batch.
+	 */
+	public int getChildMappingBatchSize() {
+		return this.childMappingBatchSize;
+	}
+
+	/**
+	 * Set the maximum number of batches waiting for the child mapping executor before reading the ResultSet pauses
+	 * until the oldest batch is completed. This bounds the memory used for buffered rows. Default is twice the number
+	 * of available processors.
+	 */
+	public void setMaxPendingBatches(int maxPendingBatches) {
+		Assert.isTrue(maxPendingBatches > 0, "Max pending batches must be greater than 0!");
+		this.maxPendingBatches = maxPendingBatches;
+	}
+
+	/**
+	 * Return the maximum number of batches waiting for the child mapping executor.
+	 */
+	public int getMaxPendingBatches() {
+		return this.maxPendingBatches;
+	}
+
 	public List<R> extractData(ResultSet rs) throws SQLException, DataAccessException {
-		List<R> results = new ArrayList<R>();
+		final List<R> results = new ArrayList<R>();
+		processAggregates(rs, new AggregateCallbackHandler<R>() {
+			public void processAggregate(R root) {
+				results.add(root);
+			}
+		});
+		verifyResultSize(results.size());
+		return results;
+	}
+
+	/**
+	 * Extract the root objects from the ResultSet handing each one to the provided {@link AggregateCallbackHandler}
+	 * as soon as all of its child rows have been read. Only the aggregate currently being assembled is held in memory,
+	 * so this can be used for joins of any size.
+	 * <p>
+	 * The {@link ExpectedResults} are verified as well; a second root object is rejected before it is passed to the
+	 * callback handler when at most one result is expected.
+	 *
+	 * @param rs the ResultSet to extract data from
+	 * @param callbackHandler the {@link AggregateCallbackHandler} to pass each completed root object to, must not be
+	 *          {@literal null}.
+	 * @return the number of root objects passed to the callback handler
+	 * @throws SQLException if a SQLException is encountered getting column values or navigating
+	 * @throws DataAccessException in case of custom exceptions
+	 */
+	public int extractData(ResultSet rs, final AggregateCallbackHandler<R> callbackHandler)
+			throws SQLException, DataAccessException {
+
+		Assert.notNull(callbackHandler, "AggregateCallbackHandler must not be null!");
+
+		final boolean atMostOne =
+				expectedResults == ExpectedResults.ONE_AND_ONLY_ONE || expectedResults == ExpectedResults.ONE_OR_NONE;
+		final int[] count = new int[1];
+		processAggregates(rs, new AggregateCallbackHandler<R>() {
+			public void processAggregate(R root) throws SQLException {
+				count[0]++;
+				if (atMostOne && count[0] > 1) {
+					throw new IncorrectResultSizeDataAccessException(1, count[0]);
+				}
+				callbackHandler.processAggregate(root);
+			}
+		});
+		verifyResultSize(count[0]);
+		return count[0];
+	}
+
+	/**
+	 * Create a {@link ResultSetExtractor} that streams the root objects to the provided
+	 * {@link AggregateCallbackHandler} instead of collecting them in a List. Useful for passing to the
+	 * <code>query</code> methods of {@link org.springframework.jdbc.core.JdbcTemplate}.
+	 *
+	 * @param callbackHandler the {@link AggregateCallbackHandler} to pass each completed root object to, must not be
+	 *          {@literal null}.
+	 * @return a {@link ResultSetExtractor} returning the number of root objects processed
+	 * @see #extractData(ResultSet, AggregateCallbackHandler)
+	 */
+	public ResultSetExtractor<Integer> streamAggregates(final AggregateCallbackHandler<R> callbackHandler) {
+
+		Assert.notNull(callbackHandler, "AggregateCallbackHandler must not be null!");
+
+		return new ResultSetExtractor<Integer>() {
+			public Integer extractData(ResultSet rs) throws SQLException, DataAccessException {
+				return OneToManyResultSetExtractor.this.extractData(rs, callbackHandler);
+			}
+		};
+	}
+
+	/**
+	 * Read all rows of the ResultSet, passing each root object to the callback handler.
+	 *
+	 * @param rs the ResultSet
+	 * @param callbackHandler the handler receiving the completed root objects
+	 * @throws SQLException
+	 * @see #processOrderedAggregates(ResultSet, AggregateAssembler)
+	 * @see #processUnorderedAggregates(ResultSet, AggregateCallbackHandler)
+	 */
+	protected void processAggregates(ResultSet rs, AggregateCallbackHandler<R> callbackHandler) throws SQLException {
+		if (!orderedByKey) {
+			if (childMappingExecutor != null) {
+				throw new InvalidDataAccessApiUsageException("Parallel child mapping requires rows ordered by key");
+			}
+			processUnorderedAggregates(rs, callbackHandler);
+		}
+		else if (childMappingExecutor == null) {
+			processOrderedAggregates(rs, new DirectAggregateAssembler(callbackHandler));
+		}
+		else {
+			ParallelAggregateAssembler assembler = new ParallelAggregateAssembler(callbackHandler);
+			try {
+				processOrderedAggregates(rs, assembler);
+				assembler.finish();
+			}
+			finally {
+				assembler.cancel();
+			}
+		}
+	}
+
+	/**
+	 * Read all rows of the ResultSet ordered by the root table's primary key, passing the child rows and each completed
+	 * root object to the assembler once the rows for the next root object are reached or the ResultSet is exhausted.
+	 * <p>
+	 * The foreign key is mapped once per row while the primary key and the root object are only mapped for the first
+	 * row of each root object.
+	 *
+	 * @param rs the ResultSet
+	 * @param assembler the assembler receiving the child rows and completed root objects
+	 * @throws SQLException
+	 */
+	protected void processOrderedAggregates(ResultSet rs, AggregateAssembler<R> assembler) throws SQLException {
 		int row = 0;
-		boolean more = rs.next();
-		if (more) {
+		R root = null;
+		K primaryKey = null;
+		ColumnIndex columnIndex = null;
+		while (rs.next()) {
 			row++;
-		}
-		while (more) {
-			R root = rootMapper.mapRow(rs, row);
-			K primaryKey = mapPrimaryKey(rs);
-			if (mapForeignKey(rs) != null) {
-				while (more && primaryKey.equals(mapForeignKey(rs))) {
-					addChild(root, childMapper.mapRow(rs, row));
-					more = rs.next();
-					if (more) {
-						row++;
-					}
-				}
+			if (columnIndex == null) {
+				columnIndex = new ColumnIndex(rs.getMetaData());
 			}
-			else {
-				more = rs.next();
-				if (more) {
-					row++;
+			K foreignKey = mapForeignKey(rs, columnIndex);
+			if (root == null || foreignKey == null || !foreignKey.equals(primaryKey)) {
+				if (root != null) {
+					assembler.completeAggregate(root);
+				}
+				root = mapRoot(rs, row, columnIndex);
+				primaryKey = mapPrimaryKey(rs, columnIndex);
+				if (foreignKey == null || !foreignKey.equals(primaryKey)) {
+					continue;
 				}
 			}
-			results.add(root);
+			assembler.addChildRow(root, rs, row, columnIndex);
+		}
+		if (root != null) {
+			assembler.completeAggregate(root);
 		}
+	}
+
+	/**
+	 * Read all rows of the ResultSet in any order, grouping the child objects under their root object using a map
+	 * keyed by the primary key. The root objects are passed to the callback handler in the order they were first
+	 * encountered once the ResultSet is exhausted.
+	 *
+	 * @param rs the ResultSet
+	 * @param callbackHandler the handler receiving the completed root objects
+	 * @throws SQLException
+	 */
+	protected void processUnorderedAggregates(ResultSet rs, AggregateCallbackHandler<R> callbackHandler)
+			throws SQLException {
+		Map<K, R> roots = new LinkedHashMap<K, R>((int) (expectedRootCount / 0.75f) + 1);
+		int row = 0;
+		ColumnIndex columnIndex = null;
+		while (rs.next()) {
+			row++;
+			if (columnIndex == null) {
+				columnIndex = new ColumnIndex(rs.getMetaData());
+			}
+			K primaryKey = mapPrimaryKey(rs, columnIndex);
+			R root = roots.get(primaryKey);
+			if (root == null) {
+				root = mapRoot(rs, row, columnIndex);
+				roots.put(primaryKey, root);
+			}
+			K foreignKey = mapForeignKey(rs, columnIndex);
+			if (foreignKey != null && foreignKey.equals(primaryKey)) {
+				addChild(root, mapChild(rs, row, columnIndex));
+			}
+		}
+		for (R root : roots.values()) {
+			callbackHandler.processAggregate(root);
+		}
+	}
+
+	private void verifyResultSize(int size) {
 		if ((expectedResults == ExpectedResults.ONE_AND_ONLY_ONE || expectedResults == ExpectedResults.ONE_OR_NONE) &&
-				results.size() > 1) {
-			throw new IncorrectResultSizeDataAccessException(1, results.size());
+				size > 1) {
+			throw new IncorrectResultSizeDataAccessException(1, size);
 		}
 		if ((expectedResults == ExpectedResults.ONE_AND_ONLY_ONE || expectedResults == ExpectedResults.AT_LEAST_ONE) &&
-				results.size() < 1) {
+				size < 1) {
 			throw new IncorrectResultSizeDataAccessException(1, 0);
 		}
-		return results;
 	}
 
 	/**
@@ -145,6 +423,50 @@ public abstract class OneToManyResultSetExtractor<R, C, K> implements ResultSetE
 	 */
 	protected abstract K mapForeignKey(ResultSet rs) throws SQLException;
 
+	/**
+	 * Map the primary key value of the current row using the column indexes resolved for the ResultSet.
+	 * The default implementation delegates to {@link #mapPrimaryKey(ResultSet)}; subclasses can override this method to
+	 * read the key by column index instead of by label.
+	 *
+	 * @param rs the ResultSet
+	 * @param columnIndex the column indexes of the ResultSet
+	 * @return the primary key value
+	 * @throws SQLException
+	 */
+	protected K mapPrimaryKey(ResultSet rs, ColumnIndex columnIndex) throws SQLException {
+		return mapPrimaryKey(rs);
+	}
+
+	/**
+	 * Map the foreign key value of the current row using the column indexes resolved for the ResultSet.
+	 * The default implementation delegates to {@link #mapForeignKey(ResultSet)}; subclasses can override this method to
+	 * read the key by column index instead of by label.
+	 *
+	 * @param rs the ResultSet
+	 * @param columnIndex the column indexes of the ResultSet
+	 * @return the foreign key value
+	 * @throws SQLException
+	 */
+	protected K mapForeignKey(ResultSet rs, ColumnIndex columnIndex) throws SQLException {
+		return mapForeignKey(rs);
+	}
+
+	/**
+	 * Map the root object of the current row, passing the column indexes to the root mapper if it is a
+	 * {@link ColumnIndexRowMapper}.
+	 */
+	protected R mapRoot(ResultSet rs, int rowNum, ColumnIndex columnIndex) throws SQLException {
+		return columnIndex.mapRow(rootMapper, rs, rowNum);
+	}
+
+	/**
+	 * Map the child object of the current row, passing the column indexes to the child mapper if it is a
+	 * {@link ColumnIndexRowMapper}.
+	 */
+	protected C mapChild(ResultSet rs, int rowNum, ColumnIndex columnIndex) throws SQLException {
+		return columnIndex.mapRow(childMapper, rs, rowNum);
+	}
+
 	/**
 	 * Add the child object to the root object
 	 * This method must be implemented by subclasses.
@@ -154,4 +476,195 @@ public abstract class OneToManyResultSetExtractor<R, C, K> implements ResultSetE
 	 */
 	protected abstract void addChild(R root, C child);
 
+
+	/**
+	 * Assembles the root objects from the rows read by
+	 * {@link OneToManyResultSetExtractor#processOrderedAggregates(ResultSet, AggregateAssembler)}, either mapping the
+	 * child rows right away or buffering them for the child mapping executor.
+	 */
+	protected interface AggregateAssembler<T> {
+
+		/**
+		 * Add the child of the current row to the given root object.
+		 * @param root the root object the child belongs to
+		 * @param rs the ResultSet positioned on the child row
+		 * @param rowNum the number of the current row
+		 * @param columnIndex the column indexes of the ResultSet
+		 * @throws SQLException
+		 */
+		void addChildRow(T root, ResultSet rs, int rowNum, ColumnIndex columnIndex) throws SQLException;
+
+		/**
+		 * Signal that all rows of the given root object have been read.
+		 * @param root the completed root object
+		 * @throws SQLException
+		 */
+		void completeAggregate(T root) throws SQLException;
+	}
+
+	/**
+	 * Maps the child rows on the reading thread and passes each root object on as soon as it is complete.
+	 */
+	private class DirectAggregateAssembler implements AggregateAssembler<R> {
+
+		private final AggregateCallbackHandler<R> callbackHandler;
+
+		DirectAggregateAssembler(AggregateCallbackHandler<R> callbackHandler) {
+			this.callbackHandler = callbackHandler;
+		}
+
+		public void addChildRow(R root, ResultSet rs, int rowNum, ColumnIndex columnIndex) throws SQLException {
+			addChild(root, mapChild(rs, rowNum, columnIndex));
+		}
+
+		public void completeAggregate(R root) throws SQLException {
+			callbackHandler.processAggregate(root);
+		}
+	}
+
+	/**
+	 * Buffers the child rows and hands them to the child mapping executor in batches, passing the root objects on in
+	 * their original order once their batch has been mapped.
+	 */
+	private class ParallelAggregateAssembler implements AggregateAssembler<R> {
+
+		private final AggregateCallbackHandler<R> callbackHandler;
+
+		private final Deque<FutureTask<List<R>>> pendingBatches = new ArrayDeque<FutureTask<List<R>>>();
+
+		private RowBuffer rowBuffer;
+
+		private ChildRowBatch batch = new ChildRowBatch();
+
+		ParallelAggregateAssembler(AggregateCallbackHandler<R> callbackHandler) {
+			this.callbackHandler = callbackHandler;
+		}
+
+		public void addChildRow(R root, ResultSet rs, int rowNum, ColumnIndex columnIndex) throws SQLException {
+			if (rowBuffer == null) {
+				rowBuffer = new RowBuffer(rs, columnIndex);
+			}
+			batch.addRow(rowBuffer.copyRow(rs), rowNum);
+		}
+
+		public void completeAggregate(R root) throws SQLException {
+			batch.addRoot(root);
+			if (batch.size() >= childMappingBatchSize) {
+				submitBatch();
+			}
+		}
+
+		void finish() throws SQLException {
+			if (batch.size() > 0) {
+				submitBatch();
+			}
+			while (!pendingBatches.isEmpty()) {
+				passOn(pendingBatches.removeFirst());
+			}
+		}
+
+		void cancel() {
+			for (FutureTask<List<R>> pendingBatch : pendingBatches) {
+				pendingBatch.cancel(true);
+			}
+			pendingBatches.clear();
+		}
+
+		private void submitBatch() throws SQLException {
+			final ChildRowBatch batchToMap = batch;
+			final RowBuffer buffer = rowBuffer;
+			batch = new ChildRowBatch();
+			FutureTask<List<R>> task = new FutureTask<List<R>>(new Callable<List<R>>() {
+				public List<R> call() throws SQLException {
+					return batchToMap.mapChildren(buffer);
+				}
+			});
+			childMappingExecutor.execute(task);
+			pendingBatches.addLast(task);
+			// pass on completed batches in order and block when too many batches are waiting
+			while (!pendingBatches.isEmpty() &&
+					(pendingBatches.peekFirst().isDone() || pendingBatches.size() > maxPendingBatches)) {
+				passOn(pendingBatches.removeFirst());
+			}
+		}
+
+		private void passOn(FutureTask<List<R>> mappedBatch) throws SQLException {
+			List<R> roots;
+			try {
+				roots = mappedBatch.get();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new DataRetrievalFailureException("Interrupted while waiting for child rows to be mapped", ex);
+			}
+			catch (ExecutionException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof SQLException) {
+					throw (SQLException) cause;
+				}
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new DataRetrievalFailureException("Failed to map child rows", cause);
+			}
+			for (R root : roots) {
+				callbackHandler.processAggregate(root);
+			}
+		}
+	}
+
+	/**
+	 * A batch of completed root objects together with their buffered child rows.
+	 */
+	private class ChildRowBatch {
+
+		private final List<R> roots = new ArrayList<R>();
+
+		private final List<Object[]> rows = new ArrayList<Object[]>();
+
+		private int[] rowNums = new int[16];
+
+		private int[] rootEnds = new int[16];
+
+		void addRow(Object[] values, int rowNum) {
+			if (rows.size() == rowNums.length) {
+				rowNums = Arrays.copyOf(rowNums, rowNums.length * 2);
+			}
+			rowNums[rows.size()] = rowNum;
+			rows.add(values);
+		}
+
+		void addRoot(R root) {
+			if (roots.size() == rootEnds.length) {
+				rootEnds = Arrays.copyOf(rootEnds, rootEnds.length * 2);
+			}
+			rootEnds[roots.size()] = rows.size();
+			roots.add(root);
+		}
+
+		int size() {
+			return roots.size() + rows.size();
+		}
+
+		List<R> mapChildren(RowBuffer buffer) throws SQLException {
+			if (rows.isEmpty()) {
+				return roots;
+			}
+			RowBufferResultSet cursor = buffer.newCursor();
+			ColumnIndex columnIndex = buffer.getColumnIndex();
+			int rowIndex = 0;
+			for (int i = 0; i < roots.size(); i++) {
+				R root = roots.get(i);
+				for (; rowIndex < rootEnds[i]; rowIndex++) {
+					cursor.moveTo(rows.get(rowIndex), rowNums[rowIndex]);
+					addChild(root, mapChild(cursor, rowNums[rowIndex], columnIndex));
+				}
+			}
+			return roots;
+		}
+	}
+
 }
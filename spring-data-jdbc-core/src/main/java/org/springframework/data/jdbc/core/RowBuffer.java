@@ -0,0 +1,111 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.core;
+
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+import javax.sql.rowset.RowSetMetaDataImpl;
+
+import org.springframework.jdbc.support.JdbcUtils;
+
+/**
+ * Copies the column values of ResultSet rows into compact <code>Object[]</code> buffers so they can be mapped by a
+ * {@link org.springframework.jdbc.core.RowMapper} on another thread while the ResultSet is still being read.
+ * <p>
+ * CLOB and BLOB values are read into a <code>String</code> and a <code>byte[]</code> while the row is copied, since
+ * the LOB locators may not outlive the current row. The buffered rows are presented to the mappers through a
+ * {@link RowBufferResultSet}, a read-only ResultSet positioned on one buffered row at a time.
+ *
+ * @since 2.0
+ */
+final class RowBuffer {
+
+	private final int columnCount;
+
+	private final ResultSetMetaData metaData;
+
+	private final ColumnIndex columnIndex;
+
+
+	/**
+	 * Create a new RowBuffer for the columns of the given ResultSet.
+	 * @param rs the ResultSet to buffer rows from
+	 * @param columnIndex the already resolved column indexes of the ResultSet
+	 * @throws SQLException
+	 */
+	RowBuffer(ResultSet rs, ColumnIndex columnIndex) throws SQLException {
+		ResultSetMetaData rsmd = rs.getMetaData();
+		this.columnCount = rsmd.getColumnCount();
+		this.columnIndex = columnIndex;
+		RowSetMetaDataImpl copy = new RowSetMetaDataImpl();
+		copy.setColumnCount(columnCount);
+		for (int i = 1; i <= columnCount; i++) {
+			copy.setColumnLabel(i, JdbcUtils.lookupColumnName(rsmd, i));
+			copy.setColumnName(i, rsmd.getColumnName(i));
+			copy.setColumnType(i, rsmd.getColumnType(i));
+			copy.setColumnTypeName(i, rsmd.getColumnTypeName(i));
+			copy.setTableName(i, rsmd.getTableName(i));
+			copy.setNullable(i, rsmd.isNullable(i));
+			copy.setPrecision(i, Math.max(0, rsmd.getPrecision(i)));
+			copy.setScale(i, Math.max(0, rsmd.getScale(i)));
+		}
+		this.metaData = copy;
+	}
+
+	/**
+	 * Return the column indexes of the buffered rows.
+	 */
+	ColumnIndex getColumnIndex() {
+		return columnIndex;
+	}
+
+	/**
+	 * Copy the values of the current row of the ResultSet.
+	 * @param rs the ResultSet positioned on the row to copy
+	 * @return the column values, indexed from 0
+	 * @throws SQLException
+	 */
+	Object[] copyRow(ResultSet rs) throws SQLException {
+		Object[] values = new Object[columnCount];
+		for (int i = 0; i < columnCount; i++) {
+			Object value = JdbcUtils.getResultSetValue(rs, i + 1);
+			if (value instanceof Clob) {
+				Clob clob = (Clob) value;
+				value = clob.getSubString(1, (int) clob.length());
+			}
+			else if (value instanceof Blob) {
+				Blob blob = (Blob) value;
+				value = blob.getBytes(1, (int) blob.length());
+			}
+			values[i] = value;
+		}
+		return values;
+	}
+
+	/**
+	 * Create a new {@link RowBufferResultSet} for presenting buffered rows to a RowMapper. It must only be used by
+	 * one thread at a time.
+	 */
+	RowBufferResultSet newCursor() {
+		return new RowBufferResultSet(metaData, columnIndex);
+	}
+
+}
@@ -0,0 +1,996 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Struct;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Map;
+
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+
+import org.springframework.dao.TypeMismatchDataAccessException;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.NumberUtils;
+
+/**
+ * A read-only, forward-only ResultSet view of the rows copied by a {@link RowBuffer}, positioned on one buffered row
+ * at a time by {@link #moveTo(Object[], int)}.
+ * <p>
+ * All getters are supported by column index and label and convert the buffered value to the requested type.
+ * CLOB and BLOB values are buffered as <code>String</code> and <code>byte[]</code>; {@link #getClob(int)},
+ * {@link #getBlob(int)}, {@link #getCharacterStream(int)} and {@link #getBinaryStream(int)} return new
+ * {@link SerialClob}, {@link SerialBlob}, {@link StringReader} and {@link ByteArrayInputStream} instances over
+ * them. The getters taking a {@link Calendar} interpret the buffered date and time in the calendar's time zone.
+ * Navigation and update methods throw a {@link SQLFeatureNotSupportedException}.
+ * <p>
+ * A RowBufferResultSet must only be used by one thread at a time.
+ *
+ * @since 2.0
+ * @see RowBuffer#newCursor()
+ */
+final class RowBufferResultSet implements ResultSet {
+
+	private static final Charset US_ASCII = Charset.forName("US-ASCII");
+
+	private final ResultSetMetaData metaData;
+
+	private final ColumnIndex columnIndex;
+
+	private final int columnCount;
+
+	private Object[] values;
+
+	private int row;
+
+	private boolean wasNull;
+
+
+	RowBufferResultSet(ResultSetMetaData metaData, ColumnIndex columnIndex) {
+		this.metaData = metaData;
+		this.columnIndex = columnIndex;
+		this.columnCount = columnIndex.getColumnCount();
+	}
+
+	/**
+	 * Position this ResultSet on the given buffered row.
+	 * @param values the column values as returned by {@link RowBuffer#copyRow(ResultSet)}
+	 * @param row the number of the row in the original ResultSet
+	 */
+	void moveTo(Object[] values, int row) {
+		this.values = values;
+		this.row = row;
+		this.wasNull = false;
+	}
+
+
+	public boolean wasNull() throws SQLException {
+		return this.wasNull;
+	}
+
+	public int getRow() throws SQLException {
+		return this.row;
+	}
+
+	public ResultSetMetaData getMetaData() throws SQLException {
+		return this.metaData;
+	}
+
+	public int findColumn(String columnLabel) throws SQLException {
+		return this.columnIndex.getIndex(columnLabel);
+	}
+
+	public String getString(int columnIndex) throws SQLException {
+		return getValue(columnIndex, String.class);
+	}
+
+	public boolean getBoolean(int columnIndex) throws SQLException {
+		Boolean value = getValue(columnIndex, Boolean.class);
+		return (value != null && value);
+	}
+
+	public byte getByte(int columnIndex) throws SQLException {
+		Byte value = getValue(columnIndex, Byte.class);
+		return (value != null ? value : 0);
+	}
+
+	public short getShort(int columnIndex) throws SQLException {
+		Short value = getValue(columnIndex, Short.class);
+		return (value != null ? value : 0);
+	}
+
+	public int getInt(int columnIndex) throws SQLException {
+		Integer value = getValue(columnIndex, Integer.class);
+		return (value != null ? value : 0);
+	}
+
+	public long getLong(int columnIndex) throws SQLException {
+		Long value = getValue(columnIndex, Long.class);
+		return (value != null ? value : 0L);
+	}
+
+	public float getFloat(int columnIndex) throws SQLException {
+		Float value = getValue(columnIndex, Float.class);
+		return (value != null ? value : 0f);
+	}
+
+	public double getDouble(int columnIndex) throws SQLException {
+		Double value = getValue(columnIndex, Double.class);
+		return (value != null ? value : 0d);
+	}
+
+	public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+		return getValue(columnIndex, BigDecimal.class);
+	}
+
+	@Deprecated
+	public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException {
+		BigDecimal value = getBigDecimal(columnIndex);
+		return (value != null ? value.setScale(scale, RoundingMode.HALF_UP) : null);
+	}
+
+	public byte[] getBytes(int columnIndex) throws SQLException {
+		return getValue(columnIndex, byte[].class);
+	}
+
+	public Date getDate(int columnIndex) throws SQLException {
+		return getValue(columnIndex, Date.class);
+	}
+
+	public Date getDate(int columnIndex, Calendar cal) throws SQLException {
+		Date value = getDate(columnIndex);
+		return (value != null && cal != null ? new Date(toCalendarTime(value, cal)) : value);
+	}
+
+	public Time getTime(int columnIndex) throws SQLException {
+		return getValue(columnIndex, Time.class);
+	}
+
+	public Time getTime(int columnIndex, Calendar cal) throws SQLException {
+		Time value = getTime(columnIndex);
+		return (value != null && cal != null ? new Time(toCalendarTime(value, cal)) : value);
+	}
+
+	public Timestamp getTimestamp(int columnIndex) throws SQLException {
+		return getValue(columnIndex, Timestamp.class);
+	}
+
+	public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException {
+		Timestamp value = getTimestamp(columnIndex);
+		if (value == null || cal == null) {
+			return value;
+		}
+		Timestamp timestamp = new Timestamp(toCalendarTime(value, cal));
+		timestamp.setNanos(value.getNanos());
+		return timestamp;
+	}
+
+	public InputStream getAsciiStream(int columnIndex) throws SQLException {
+		String value = getString(columnIndex);
+		return (value != null ? new ByteArrayInputStream(value.getBytes(US_ASCII)) : null);
+	}
+
+	@Deprecated
+	public InputStream getUnicodeStream(int columnIndex) throws SQLException {
+		throw unsupported("getUnicodeStream");
+	}
+
+	public InputStream getBinaryStream(int columnIndex) throws SQLException {
+		return getValue(columnIndex, InputStream.class);
+	}
+
+	public Reader getCharacterStream(int columnIndex) throws SQLException {
+		return getValue(columnIndex, Reader.class);
+	}
+
+	public Reader getNCharacterStream(int columnIndex) throws SQLException {
+		return getCharacterStream(columnIndex);
+	}
+
+	public String getNString(int columnIndex) throws SQLException {
+		return getString(columnIndex);
+	}
+
+	public Clob getClob(int columnIndex) throws SQLException {
+		return getValue(columnIndex, Clob.class);
+	}
+
+	public NClob getNClob(int columnIndex) throws SQLException {
+		return getValue(columnIndex, NClob.class);
+	}
+
+	public Blob getBlob(int columnIndex) throws SQLException {
+		return getValue(columnIndex, Blob.class);
+	}
+
+	public Array getArray(int columnIndex) throws SQLException {
+		return getValue(columnIndex, Array.class);
+	}
+
+	public Ref getRef(int columnIndex) throws SQLException {
+		return getValue(columnIndex, Ref.class);
+	}
+
+	public RowId getRowId(int columnIndex) throws SQLException {
+		return getValue(columnIndex, RowId.class);
+	}
+
+	public SQLXML getSQLXML(int columnIndex) throws SQLException {
+		return getValue(columnIndex, SQLXML.class);
+	}
+
+	public URL getURL(int columnIndex) throws SQLException {
+		return getValue(columnIndex, URL.class);
+	}
+
+	public Object getObject(int columnIndex) throws SQLException {
+		return getValue(columnIndex, Object.class);
+	}
+
+	/**
+	 * The values have already been read from the original ResultSet, so the type map can only be honoured when it
+	 * is empty or when the column does not hold a structured type.
+	 */
+	public Object getObject(int columnIndex, Map<String, Class<?>> map) throws SQLException {
+		Object value = getObject(columnIndex);
+		if (value instanceof Struct && map != null && !map.isEmpty()) {
+			throw unsupported("getObject with a type map for structured types");
+		}
+		return value;
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
+		return (T) getValue(columnIndex, ClassUtils.resolvePrimitiveIfNecessary(type));
+	}
+
+	public String getString(String columnLabel) throws SQLException {
+		return getString(findColumn(columnLabel));
+	}
+
+	public boolean getBoolean(String columnLabel) throws SQLException {
+		return getBoolean(findColumn(columnLabel));
+	}
+
+	public byte getByte(String columnLabel) throws SQLException {
+		return getByte(findColumn(columnLabel));
+	}
+
+	public short getShort(String columnLabel) throws SQLException {
+		return getShort(findColumn(columnLabel));
+	}
+
+	public int getInt(String columnLabel) throws SQLException {
+		return getInt(findColumn(columnLabel));
+	}
+
+	public long getLong(String columnLabel) throws SQLException {
+		return getLong(findColumn(columnLabel));
+	}
+
+	public float getFloat(String columnLabel) throws SQLException {
+		return getFloat(findColumn(columnLabel));
+	}
+
+	public double getDouble(String columnLabel) throws SQLException {
+		return getDouble(findColumn(columnLabel));
+	}
+
+	public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
+		return getBigDecimal(findColumn(columnLabel));
+	}
+
+	@Deprecated
+	public BigDecimal getBigDecimal(String columnLabel, int scale) throws SQLException {
+		return getBigDecimal(findColumn(columnLabel), scale);
+	}
+
+	public byte[] getBytes(String columnLabel) throws SQLException {
+		return getBytes(findColumn(columnLabel));
+	}
+
+	public Date getDate(String columnLabel) throws SQLException {
+		return getDate(findColumn(columnLabel));
+	}
+
+	public Date getDate(String columnLabel, Calendar cal) throws SQLException {
+		return getDate(findColumn(columnLabel), cal);
+	}
+
+	public Time getTime(String columnLabel) throws SQLException {
+		return getTime(findColumn(columnLabel));
+	}
+
+	public Time getTime(String columnLabel, Calendar cal) throws SQLException {
+		return getTime(findColumn(columnLabel), cal);
+	}
+
+	public Timestamp getTimestamp(String columnLabel) throws SQLException {
+		return getTimestamp(findColumn(columnLabel));
+	}
+
+	public Timestamp getTimestamp(String columnLabel, Calendar cal) throws SQLException {
+		return getTimestamp(findColumn(columnLabel), cal);
+	}
+
+	public InputStream getAsciiStream(String columnLabel) throws SQLException {
+		return getAsciiStream(findColumn(columnLabel));
+	}
+
+	@Deprecated
+	public InputStream getUnicodeStream(String columnLabel) throws SQLException {
+		throw unsupported("getUnicodeStream");
+	}
+
+	public InputStream getBinaryStream(String columnLabel) throws SQLException {
+		return getBinaryStream(findColumn(columnLabel));
+	}
+
+	public Reader getCharacterStream(String columnLabel) throws SQLException {
+		return getCharacterStream(findColumn(columnLabel));
+	}
+
+	public Reader getNCharacterStream(String columnLabel) throws SQLException {
+		return getNCharacterStream(findColumn(columnLabel));
+	}
+
+	public String getNString(String columnLabel) throws SQLException {
+		return getNString(findColumn(columnLabel));
+	}
+
+	public Clob getClob(String columnLabel) throws SQLException {
+		return getClob(findColumn(columnLabel));
+	}
+
+	public NClob getNClob(String columnLabel) throws SQLException {
+		return getNClob(findColumn(columnLabel));
+	}
+
+	public Blob getBlob(String columnLabel) throws SQLException {
+		return getBlob(findColumn(columnLabel));
+	}
+
+	public Array getArray(String columnLabel) throws SQLException {
+		return getArray(findColumn(columnLabel));
+	}
+
+	public Ref getRef(String columnLabel) throws SQLException {
+		return getRef(findColumn(columnLabel));
+	}
+
+	public RowId getRowId(String columnLabel) throws SQLException {
+		return getRowId(findColumn(columnLabel));
+	}
+
+	public SQLXML getSQLXML(String columnLabel) throws SQLException {
+		return getSQLXML(findColumn(columnLabel));
+	}
+
+	public URL getURL(String columnLabel) throws SQLException {
+		return getURL(findColumn(columnLabel));
+	}
+
+	public Object getObject(String columnLabel) throws SQLException {
+		return getObject(findColumn(columnLabel));
+	}
+
+	public Object getObject(String columnLabel, Map<String, Class<?>> map) throws SQLException {
+		return getObject(findColumn(columnLabel), map);
+	}
+
+	public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
+		return getObject(findColumn(columnLabel), type);
+	}
+
+	public SQLWarning getWarnings() throws SQLException {
+		return null;
+	}
+
+	public void clearWarnings() throws SQLException {
+	}
+
+	public String getCursorName() throws SQLException {
+		throw unsupported("getCursorName");
+	}
+
+	public Statement getStatement() throws SQLException {
+		return null;
+	}
+
+	public int getType() throws SQLException {
+		return TYPE_FORWARD_ONLY;
+	}
+
+	public int getConcurrency() throws SQLException {
+		return CONCUR_READ_ONLY;
+	}
+
+	public int getHoldability() throws SQLException {
+		return CLOSE_CURSORS_AT_COMMIT;
+	}
+
+	public int getFetchDirection() throws SQLException {
+		return FETCH_FORWARD;
+	}
+
+	public void setFetchDirection(int direction) throws SQLException {
+		throw unsupported("setFetchDirection");
+	}
+
+	public int getFetchSize() throws SQLException {
+		return 0;
+	}
+
+	public void setFetchSize(int rows) throws SQLException {
+		throw unsupported("setFetchSize");
+	}
+
+	public boolean isClosed() throws SQLException {
+		return false;
+	}
+
+	public void close() throws SQLException {
+	}
+
+	public boolean next() throws SQLException {
+		throw unsupported("next");
+	}
+
+	public boolean previous() throws SQLException {
+		throw unsupported("previous");
+	}
+
+	public boolean first() throws SQLException {
+		throw unsupported("first");
+	}
+
+	public boolean last() throws SQLException {
+		throw unsupported("last");
+	}
+
+	public boolean absolute(int row) throws SQLException {
+		throw unsupported("absolute");
+	}
+
+	public boolean relative(int rows) throws SQLException {
+		throw unsupported("relative");
+	}
+
+	public void beforeFirst() throws SQLException {
+		throw unsupported("beforeFirst");
+	}
+
+	public void afterLast() throws SQLException {
+		throw unsupported("afterLast");
+	}
+
+	public boolean isBeforeFirst() throws SQLException {
+		throw unsupported("isBeforeFirst");
+	}
+
+	public boolean isAfterLast() throws SQLException {
+		throw unsupported("isAfterLast");
+	}
+
+	public boolean isFirst() throws SQLException {
+		throw unsupported("isFirst");
+	}
+
+	public boolean isLast() throws SQLException {
+		throw unsupported("isLast");
+	}
+
+	public boolean rowUpdated() throws SQLException {
+		return false;
+	}
+
+	public boolean rowInserted() throws SQLException {
+		return false;
+	}
+
+	public boolean rowDeleted() throws SQLException {
+		return false;
+	}
+
+	public void insertRow() throws SQLException {
+		throw unsupported("insertRow");
+	}
+
+	public void updateRow() throws SQLException {
+		throw unsupported("updateRow");
+	}
+
+	public void deleteRow() throws SQLException {
+		throw unsupported("deleteRow");
+	}
+
+	public void refreshRow() throws SQLException {
+		throw unsupported("refreshRow");
+	}
+
+	public void cancelRowUpdates() throws SQLException {
+		throw unsupported("cancelRowUpdates");
+	}
+
+	public void moveToInsertRow() throws SQLException {
+		throw unsupported("moveToInsertRow");
+	}
+
+	public void moveToCurrentRow() throws SQLException {
+		throw unsupported("moveToCurrentRow");
+	}
+
+	public void updateNull(int columnIndex) throws SQLException {
+		throw unsupported("updateNull");
+	}
+
+	public void updateBoolean(int columnIndex, boolean x) throws SQLException {
+		throw unsupported("updateBoolean");
+	}
+
+	public void updateByte(int columnIndex, byte x) throws SQLException {
+		throw unsupported("updateByte");
+	}
+
+	public void updateShort(int columnIndex, short x) throws SQLException {
+		throw unsupported("updateShort");
+	}
+
+	public void updateInt(int columnIndex, int x) throws SQLException {
+		throw unsupported("updateInt");
+	}
+
+	public void updateLong(int columnIndex, long length) throws SQLException {
+		throw unsupported("updateLong");
+	}
+
+	public void updateFloat(int columnIndex, float x) throws SQLException {
+		throw unsupported("updateFloat");
+	}
+
+	public void updateDouble(int columnIndex, double x) throws SQLException {
+		throw unsupported("updateDouble");
+	}
+
+	public void updateBigDecimal(int columnIndex, BigDecimal x) throws SQLException {
+		throw unsupported("updateBigDecimal");
+	}
+
+	public void updateString(int columnIndex, String x) throws SQLException {
+		throw unsupported("updateString");
+	}
+
+	public void updateBytes(int columnIndex, byte[] x) throws SQLException {
+		throw unsupported("updateBytes");
+	}
+
+	public void updateDate(int columnIndex, Date x) throws SQLException {
+		throw unsupported("updateDate");
+	}
+
+	public void updateTime(int columnIndex, Time x) throws SQLException {
+		throw unsupported("updateTime");
+	}
+
+	public void updateTimestamp(int columnIndex, Timestamp x) throws SQLException {
+		throw unsupported("updateTimestamp");
+	}
+
+	public void updateAsciiStream(int columnIndex, InputStream inputStream, int length) throws SQLException {
+		throw unsupported("updateAsciiStream");
+	}
+
+	public void updateBinaryStream(int columnIndex, InputStream inputStream, int length) throws SQLException {
+		throw unsupported("updateBinaryStream");
+	}
+
+	public void updateCharacterStream(int columnIndex, Reader reader, int length) throws SQLException {
+		throw unsupported("updateCharacterStream");
+	}
+
+	public void updateObject(int columnIndex, Object x, int scaleOrLength) throws SQLException {
+		throw unsupported("updateObject");
+	}
+
+	public void updateObject(int columnIndex, Object x) throws SQLException {
+		throw unsupported("updateObject");
+	}
+
+	public void updateNull(String columnLabel) throws SQLException {
+		throw unsupported("updateNull");
+	}
+
+	public void updateBoolean(String columnLabel, boolean x) throws SQLException {
+		throw unsupported("updateBoolean");
+	}
+
+	public void updateByte(String columnLabel, byte x) throws SQLException {
+		throw unsupported("updateByte");
+	}
+
+	public void updateShort(String columnLabel, short x) throws SQLException {
+		throw unsupported("updateShort");
+	}
+
+	public void updateInt(String columnLabel, int x) throws SQLException {
+		throw unsupported("updateInt");
+	}
+
+	public void updateLong(String columnLabel, long length) throws SQLException {
+		throw unsupported("updateLong");
+	}
+
+	public void updateFloat(String columnLabel, float x) throws SQLException {
+		throw unsupported("updateFloat");
+	}
+
+	public void updateDouble(String columnLabel, double x) throws SQLException {
+		throw unsupported("updateDouble");
+	}
+
+	public void updateBigDecimal(String columnLabel, BigDecimal x) throws SQLException {
+		throw unsupported("updateBigDecimal");
+	}
+
+	public void updateString(String columnLabel, String x) throws SQLException {
+		throw unsupported("updateString");
+	}
+
+	public void updateBytes(String columnLabel, byte[] x) throws SQLException {
+		throw unsupported("updateBytes");
+	}
+
+	public void updateDate(String columnLabel, Date x) throws SQLException {
+		throw unsupported("updateDate");
+	}
+
+	public void updateTime(String columnLabel, Time x) throws SQLException {
+		throw unsupported("updateTime");
+	}
+
+	public void updateTimestamp(String columnLabel, Timestamp x) throws SQLException {
+		throw unsupported("updateTimestamp");
+	}
+
+	public void updateAsciiStream(String columnLabel, InputStream inputStream, int length) throws SQLException {
+		throw unsupported("updateAsciiStream");
+	}
+
+	public void updateBinaryStream(String columnLabel, InputStream inputStream, int length) throws SQLException {
+		throw unsupported("updateBinaryStream");
+	}
+
+	public void updateCharacterStream(String columnLabel, Reader reader, int length) throws SQLException {
+		throw unsupported("updateCharacterStream");
+	}
+
+	public void updateObject(String columnLabel, Object x, int scaleOrLength) throws SQLException {
+		throw unsupported("updateObject");
+	}
+
+	public void updateObject(String columnLabel, Object x) throws SQLException {
+		throw unsupported("updateObject");
+	}
+
+	public void updateRef(int columnIndex, Ref x) throws SQLException {
+		throw unsupported("updateRef");
+	}
+
+	public void updateRef(String columnLabel, Ref x) throws SQLException {
+		throw unsupported("updateRef");
+	}
+
+	public void updateBlob(int columnIndex, Blob x) throws SQLException {
+		throw unsupported("updateBlob");
+	}
+
+	public void updateBlob(String columnLabel, Blob x) throws SQLException {
+		throw unsupported("updateBlob");
+	}
+
+	public void updateClob(int columnIndex, Clob x) throws SQLException {
+		throw unsupported("updateClob");
+	}
+
+	public void updateClob(String columnLabel, Clob x) throws SQLException {
+		throw unsupported("updateClob");
+	}
+
+	public void updateArray(int columnIndex, Array x) throws SQLException {
+		throw unsupported("updateArray");
+	}
+
+	public void updateArray(String columnLabel, Array x) throws SQLException {
+		throw unsupported("updateArray");
+	}
+
+	public void updateRowId(int columnIndex, RowId x) throws SQLException {
+		throw unsupported("updateRowId");
+	}
+
+	public void updateRowId(String columnLabel, RowId x) throws SQLException {
+		throw unsupported("updateRowId");
+	}
+
+	public void updateNString(int columnIndex, String x) throws SQLException {
+		throw unsupported("updateNString");
+	}
+
+	public void updateNString(String columnLabel, String x) throws SQLException {
+		throw unsupported("updateNString");
+	}
+
+	public void updateNClob(int columnIndex, NClob x) throws SQLException {
+		throw unsupported("updateNClob");
+	}
+
+	public void updateNClob(String columnLabel, NClob x) throws SQLException {
+		throw unsupported("updateNClob");
+	}
+
+	public void updateSQLXML(int columnIndex, SQLXML x) throws SQLException {
+		throw unsupported("updateSQLXML");
+	}
+
+	public void updateSQLXML(String columnLabel, SQLXML x) throws SQLException {
+		throw unsupported("updateSQLXML");
+	}
+
+	public void updateNCharacterStream(int columnIndex, Reader reader, long length) throws SQLException {
+		throw unsupported("updateNCharacterStream");
+	}
+
+	public void updateNCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
+		throw unsupported("updateNCharacterStream");
+	}
+
+	public void updateAsciiStream(int columnIndex, InputStream inputStream, long length) throws SQLException {
+		throw unsupported("updateAsciiStream");
+	}
+
+	public void updateBinaryStream(int columnIndex, InputStream inputStream, long length) throws SQLException {
+		throw unsupported("updateBinaryStream");
+	}
+
+	public void updateCharacterStream(int columnIndex, Reader reader, long length) throws SQLException {
+		throw unsupported("updateCharacterStream");
+	}
+
+	public void updateAsciiStream(String columnLabel, InputStream inputStream, long length) throws SQLException {
+		throw unsupported("updateAsciiStream");
+	}
+
+	public void updateBinaryStream(String columnLabel, InputStream inputStream, long length) throws SQLException {
+		throw unsupported("updateBinaryStream");
+	}
+
+	public void updateCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
+		throw unsupported("updateCharacterStream");
+	}
+
+	public void updateBlob(int columnIndex, InputStream inputStream, long length) throws SQLException {
+		throw unsupported("updateBlob");
+	}
+
+	public void updateBlob(String columnLabel, InputStream inputStream, long length) throws SQLException {
+		throw unsupported("updateBlob");
+	}
+
+	public void updateClob(int columnIndex, Reader reader, long length) throws SQLException {
+		throw unsupported("updateClob");
+	}
+
+	public void updateClob(String columnLabel, Reader reader, long length) throws SQLException {
+		throw unsupported("updateClob");
+	}
+
+	public void updateNClob(int columnIndex, Reader reader, long length) throws SQLException {
+		throw unsupported("updateNClob");
+	}
+
+	public void updateNClob(String columnLabel, Reader reader, long length) throws SQLException {
+		throw unsupported("updateNClob");
+	}
+
+	public void updateNCharacterStream(int columnIndex, Reader reader) throws SQLException {
+		throw unsupported("updateNCharacterStream");
+	}
+
+	public void updateNCharacterStream(String columnLabel, Reader reader) throws SQLException {
+		throw unsupported("updateNCharacterStream");
+	}
+
+	public void updateAsciiStream(int columnIndex, InputStream inputStream) throws SQLException {
+		throw unsupported("updateAsciiStream");
+	}
+
+	public void updateBinaryStream(int columnIndex, InputStream inputStream) throws SQLException {
+		throw unsupported("updateBinaryStream");
+	}
+
+	public void updateCharacterStream(int columnIndex, Reader reader) throws SQLException {
+		throw unsupported("updateCharacterStream");
+	}
+
+	public void updateAsciiStream(String columnLabel, InputStream inputStream) throws SQLException {
+		throw unsupported("updateAsciiStream");
+	}
+
+	public void updateBinaryStream(String columnLabel, InputStream inputStream) throws SQLException {
+		throw unsupported("updateBinaryStream");
+	}
+
+	public void updateCharacterStream(String columnLabel, Reader reader) throws SQLException {
+		throw unsupported("updateCharacterStream");
+	}
+
+	public void updateBlob(int columnIndex, InputStream inputStream) throws SQLException {
+		throw unsupported("updateBlob");
+	}
+
+	public void updateBlob(String columnLabel, InputStream inputStream) throws SQLException {
+		throw unsupported("updateBlob");
+	}
+
+	public void updateClob(int columnIndex, Reader reader) throws SQLException {
+		throw unsupported("updateClob");
+	}
+
+	public void updateClob(String columnLabel, Reader reader) throws SQLException {
+		throw unsupported("updateClob");
+	}
+
+	public void updateNClob(int columnIndex, Reader reader) throws SQLException {
+		throw unsupported("updateNClob");
+	}
+
+	public void updateNClob(String columnLabel, Reader reader) throws SQLException {
+		throw unsupported("updateNClob");
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		if (iface.isInstance(this)) {
+			return (T) this;
+		}
+		throw new SQLException("Buffered row cannot be unwrapped to [" + iface.getName() + "]");
+	}
+
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return iface.isInstance(this);
+	}
+
+	@Override
+	public String toString() {
+		return "Buffered row " + this.row;
+	}
+
+
+	private <T> T getValue(int columnIndex, Class<T> requiredType) throws SQLException {
+		if (columnIndex < 1 || columnIndex > this.columnCount) {
+			throw new SQLException("Invalid column index: " + columnIndex);
+		}
+		Object value = this.values[columnIndex - 1];
+		this.wasNull = (value == null);
+		return requiredType.cast(convertValue(value, requiredType));
+	}
+
+	private static Object convertValue(Object value, Class<?> requiredType) throws SQLException {
+		if (value == null || requiredType == Object.class || requiredType.isInstance(value)) {
+			return value;
+		}
+		if (requiredType == String.class) {
+			return value.toString();
+		}
+		if (requiredType == Boolean.class) {
+			if (value instanceof Number) {
+				return ((Number) value).intValue() != 0;
+			}
+			return "1".equals(value) || Boolean.valueOf(value.toString());
+		}
+		if (Number.class.isAssignableFrom(requiredType)) {
+			if (value instanceof Number) {
+				return NumberUtils.convertNumberToTargetClass((Number) value, requiredType.asSubclass(Number.class));
+			}
+			return NumberUtils.parseNumber(value.toString(), requiredType.asSubclass(Number.class));
+		}
+		if (value instanceof java.util.Date) {
+			long time = ((java.util.Date) value).getTime();
+			if (requiredType == Timestamp.class) {
+				return new Timestamp(time);
+			}
+			if (requiredType == Date.class) {
+				return new Date(time);
+			}
+			if (requiredType == Time.class) {
+				return new Time(time);
+			}
+		}
+		if (value instanceof String) {
+			if (requiredType == Clob.class) {
+				return new SerialClob(((String) value).toCharArray());
+			}
+			if (requiredType == Reader.class) {
+				return new StringReader((String) value);
+			}
+			if (requiredType == URL.class) {
+				try {
+					return new URL((String) value);
+				}
+				catch (MalformedURLException ex) {
+					throw new SQLException("Buffered value is not a valid URL: " + value, ex);
+				}
+			}
+		}
+		if (value instanceof byte[]) {
+			if (requiredType == Blob.class) {
+				return new SerialBlob((byte[]) value);
+			}
+			if (requiredType == InputStream.class) {
+				return new ByteArrayInputStream((byte[]) value);
+			}
+		}
+		throw new TypeMismatchDataAccessException("Buffered value of type [" + value.getClass().getName() +
+				"] cannot be returned as [" + requiredType.getName() + "]");
+	}
+
+	/**
+	 * Interpret the date and time fields of the given value, which was read in the default time zone, in the time
+	 * zone of the given calendar.
+	 */
+	private static long toCalendarTime(java.util.Date value, Calendar cal) {
+		Calendar local = Calendar.getInstance();
+		local.setTime(value);
+		Calendar target = (Calendar) cal.clone();
+		target.clear();
+		target.set(Calendar.ERA, local.get(Calendar.ERA));
+		target.set(local.get(Calendar.YEAR), local.get(Calendar.MONTH), local.get(Calendar.DAY_OF_MONTH),
+				local.get(Calendar.HOUR_OF_DAY), local.get(Calendar.MINUTE), local.get(Calendar.SECOND));
+		target.set(Calendar.MILLISECOND, local.get(Calendar.MILLISECOND));
+		return target.getTimeInMillis();
+	}
+
+	private static SQLFeatureNotSupportedException unsupported(String methodName) {
+		return new SQLFeatureNotSupportedException("Method '" + methodName + "' is not supported for buffered rows");
+	}
+
+}
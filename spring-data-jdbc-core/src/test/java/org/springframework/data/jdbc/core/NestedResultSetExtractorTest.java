@@ -0,0 +1,152 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.core;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jdbc.core.NestedResultSetExtractor.ChildLevel;
+import org.springframework.data.jdbc.core.NestedResultSetExtractor.RootLevel;
+import org.springframework.data.jdbc.core.domain.Customer;
+import org.springframework.data.jdbc.core.domain.OrderLine;
+import org.springframework.data.jdbc.core.domain.PurchaseOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+@ContextConfiguration(locations="classpath:core-context.xml")
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+public class NestedResultSetExtractorTest {
+
+	private static final String QUERY =
+			"select customer.id, customer.name, purchase_order.id, purchase_order.description, " +
+			"order_line.id, order_line.product, order_line.quantity " +
+			"from customer " +
+			"left join purchase_order on customer.id = purchase_order.customer_id " +
+			"left join order_line on purchase_order.id = order_line.order_id " +
+			"order by customer.id, purchase_order.id, order_line.id";
+
+	@Autowired
+	DataSource dataSource;
+
+	JdbcTemplate template;
+
+	NestedResultSetExtractor<Customer> resultSetExtractor;
+
+	@Before
+	public void before() {
+		template = new JdbcTemplate(dataSource);
+		resultSetExtractor = new NestedResultSetExtractor<Customer>(
+				new RootLevel<Customer, Integer>(new CustomerMapper()) {
+					@Override
+					protected Integer mapKey(ResultSet rs) throws SQLException {
+						return rs.getInt("customer.id");
+					}
+				},
+				new ChildLevel<Customer, PurchaseOrder, Long>(new PurchaseOrderMapper()) {
+					@Override
+					protected Long mapKey(ResultSet rs) throws SQLException {
+						long id = rs.getLong("purchase_order.id");
+						return rs.wasNull() ? null : id;
+					}
+
+					@Override
+					protected void addChild(Customer parent, PurchaseOrder child) {
+						parent.addOrder(child);
+					}
+				},
+				new ChildLevel<PurchaseOrder, OrderLine, Long>(new OrderLineMapper()) {
+					@Override
+					protected Long mapKey(ResultSet rs) throws SQLException {
+						long id = rs.getLong("order_line.id");
+						return rs.wasNull() ? null : id;
+					}
+
+					@Override
+					protected void addChild(PurchaseOrder parent, OrderLine child) {
+						parent.addLine(child);
+					}
+				});
+	}
+
+	@Test
+	public void testExtractingNestedData() {
+		List<Customer> result = template.query(QUERY, resultSetExtractor);
+		Assert.assertEquals(3, result.size());
+		Customer thomas = result.get(0);
+		Assert.assertEquals(Integer.valueOf(1), thomas.getId());
+		Assert.assertEquals(2, thomas.getOrders().size());
+		Assert.assertEquals("Books", thomas.getOrders().get(0).getDescription());
+		Assert.assertEquals(3, thomas.getOrders().get(0).getLines().size());
+		Assert.assertEquals("Music", thomas.getOrders().get(1).getDescription());
+		Assert.assertEquals(1, thomas.getOrders().get(1).getLines().size());
+		Customer mark = result.get(1);
+		Assert.assertEquals(Integer.valueOf(2), mark.getId());
+		Assert.assertEquals(1, mark.getOrders().size());
+		Assert.assertEquals(0, mark.getOrders().get(0).getLines().size());
+		Customer oliver = result.get(2);
+		Assert.assertEquals(Integer.valueOf(3), oliver.getId());
+		Assert.assertEquals(0, oliver.getOrders().size());
+	}
+
+	@Test
+	public void testReusingExtractor() {
+		Assert.assertEquals(3, template.query(QUERY, resultSetExtractor).size());
+		Assert.assertEquals(3, template.query(QUERY, resultSetExtractor).size());
+	}
+
+	private static class CustomerMapper implements RowMapper<Customer> {
+
+		public Customer mapRow(ResultSet rs, int rowNum) throws SQLException {
+			Customer c = new Customer();
+			c.setId(rs.getInt("customer.id"));
+			c.setName(rs.getString("customer.name"));
+			return c;
+		}
+	}
+
+	private static class PurchaseOrderMapper implements RowMapper<PurchaseOrder> {
+
+		public PurchaseOrder mapRow(ResultSet rs, int rowNum) throws SQLException {
+			PurchaseOrder o = new PurchaseOrder();
+			o.setId(rs.getLong("purchase_order.id"));
+			o.setDescription(rs.getString("purchase_order.description"));
+			return o;
+		}
+	}
+
+	private static class OrderLineMapper implements RowMapper<OrderLine> {
+
+		public OrderLine mapRow(ResultSet rs, int rowNum) throws SQLException {
+			OrderLine l = new OrderLine();
+			l.setId(rs.getLong("order_line.id"));
+			l.setProduct(rs.getString("order_line.product"));
+			l.setQuantity(rs.getInt("order_line.quantity"));
+			return l;
+		}
+	}
+}
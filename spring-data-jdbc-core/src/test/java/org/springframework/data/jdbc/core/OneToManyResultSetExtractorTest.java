@@ -21,6 +21,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.jdbc.core.domain.Address;
 import org.springframework.data.jdbc.core.domain.Customer;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -32,7 +34,10 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import javax.sql.DataSource;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @ContextConfiguration(locations="classpath:core-context.xml")
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -80,6 +85,165 @@ public class OneToManyResultSetExtractorTest {
 		Assert.assertEquals(3, result2.size());
 	}
 
+	@Test
+	public void testStreamingAggregates() {
+		final List<Customer> result = new ArrayList<Customer>();
+		Integer count = template.query(
+				"select customer.id, customer.name, address.id, " +
+				"address.customer_id, address.street, address.city " +
+				"from customer " +
+				"left join address on customer.id = address.customer_id " +
+				"order by customer.id",
+				resultSetExtractor.streamAggregates(new AggregateCallbackHandler<Customer>() {
+					public void processAggregate(Customer root) {
+						result.add(root);
+					}
+				}));
+		Assert.assertEquals(Integer.valueOf(3), count);
+		Assert.assertEquals(3, result.size());
+		Assert.assertEquals(2, result.get(0).getAddresses().size());
+		Assert.assertEquals(1, result.get(1).getAddresses().size());
+		Assert.assertEquals(0, result.get(2).getAddresses().size());
+	}
+
+	@Test(expected = IncorrectResultSizeDataAccessException.class)
+	public void testStreamingAggregatesRejectsSecondResult() {
+		final List<Customer> result = new ArrayList<Customer>();
+		try {
+			template.query(
+					"select customer.id, customer.name, address.id, " +
+					"address.customer_id, address.street, address.city " +
+					"from customer " +
+					"left join address on customer.id = address.customer_id " +
+					"order by customer.id",
+					new CustomerAddressExtractor(OneToManyResultSetExtractor.ExpectedResults.ONE_OR_NONE)
+							.streamAggregates(new AggregateCallbackHandler<Customer>() {
+								public void processAggregate(Customer root) {
+									result.add(root);
+								}
+							}));
+		}
+		finally {
+			Assert.assertEquals(1, result.size());
+		}
+	}
+
+	@Test
+	public void testExtractingDataWithLongKeys() {
+		List<Customer> result = template.query(
+				"select customer.id, customer.name, address.id, " +
+				"address.customer_id, address.street, address.city " +
+				"from customer " +
+				"left join address on customer.id = address.customer_id " +
+				"order by customer.id",
+				new LongKeyCustomerAddressExtractor());
+		Assert.assertEquals(3, result.size());
+		Assert.assertEquals(Integer.valueOf(1), result.get(0).getId());
+		Assert.assertEquals(2, result.get(0).getAddresses().size());
+		Assert.assertEquals(Integer.valueOf(2), result.get(1).getId());
+		Assert.assertEquals(1, result.get(1).getAddresses().size());
+		Assert.assertEquals(Integer.valueOf(3), result.get(2).getId());
+		Assert.assertEquals(0, result.get(2).getAddresses().size());
+	}
+
+	@Test
+	public void testExtractingUnorderedData() {
+		CustomerAddressExtractor extractor = new CustomerAddressExtractor();
+		extractor.setOrderedByKey(false);
+		extractor.setExpectedRootCount(3);
+		List<Customer> result = template.query(
+				"select customer.id, customer.name, address.id, " +
+				"address.customer_id, address.street, address.city " +
+				"from customer " +
+				"left join address on customer.id = address.customer_id " +
+				"order by address.city",
+				extractor);
+		Assert.assertEquals(3, result.size());
+		for (Customer customer : result) {
+			Assert.assertEquals(customer.getId() == 1 ? 2 : customer.getId() == 2 ? 1 : 0,
+					customer.getAddresses().size());
+		}
+	}
+
+	@Test(expected = IncorrectResultSizeDataAccessException.class)
+	public void testExtractingUnorderedDataVerifiesExpectedResults() {
+		CustomerAddressExtractor extractor =
+				new CustomerAddressExtractor(OneToManyResultSetExtractor.ExpectedResults.ONE_AND_ONLY_ONE);
+		extractor.setOrderedByKey(false);
+		template.query(
+				"select customer.id, customer.name, address.id, " +
+				"address.customer_id, address.street, address.city " +
+				"from customer " +
+				"left join address on customer.id = address.customer_id " +
+				"order by address.city",
+				extractor);
+	}
+
+	@Test
+	public void testExtractingDataWithChildMappingExecutor() {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			CustomerAddressExtractor extractor = new CustomerAddressExtractor();
+			extractor.setChildMappingExecutor(executor);
+			extractor.setChildMappingBatchSize(1);
+			extractor.setMaxPendingBatches(1);
+			List<Customer> result = template.query(
+					"select customer.id, customer.name, address.id, " +
+					"address.customer_id, address.street, address.city " +
+					"from customer " +
+					"left join address on customer.id = address.customer_id " +
+					"order by customer.id",
+					extractor);
+			Assert.assertEquals(3, result.size());
+			Assert.assertEquals(Integer.valueOf(1), result.get(0).getId());
+			Assert.assertEquals(2, result.get(0).getAddresses().size());
+			Assert.assertEquals(Integer.valueOf(2), result.get(1).getId());
+			Assert.assertEquals(1, result.get(1).getAddresses().size());
+			Assert.assertNotNull(result.get(1).getAddresses().iterator().next().getStreet());
+			Assert.assertEquals(Integer.valueOf(3), result.get(2).getId());
+			Assert.assertEquals(0, result.get(2).getAddresses().size());
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void testChildMappingExecutorRequiresOrderedData() {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			CustomerAddressExtractor extractor = new CustomerAddressExtractor();
+			extractor.setChildMappingExecutor(executor);
+			extractor.setOrderedByKey(false);
+			template.query(
+					"select customer.id, customer.name, address.id, " +
+					"address.customer_id, address.street, address.city " +
+					"from customer " +
+					"left join address on customer.id = address.customer_id",
+					extractor);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testExtractingDataWithColumnIndex() {
+		List<Customer> result = template.query(
+				"select customer.id, customer.name, address.id, " +
+				"address.customer_id, address.street, address.city " +
+				"from customer " +
+				"left join address on customer.id = address.customer_id " +
+				"order by customer.id",
+				new IndexedCustomerAddressExtractor());
+		Assert.assertEquals(3, result.size());
+		Assert.assertEquals(Integer.valueOf(1), result.get(0).getId());
+		Assert.assertEquals(2, result.get(0).getAddresses().size());
+		Assert.assertNotNull(result.get(0).getAddresses().iterator().next().getCity());
+		Assert.assertEquals(1, result.get(1).getAddresses().size());
+		Assert.assertEquals(0, result.get(2).getAddresses().size());
+	}
+
 	public class CustomerAddressExtractor extends
 			OneToManyResultSetExtractor<Customer, Address, Integer> {
 
@@ -87,6 +251,14 @@ public class OneToManyResultSetExtractorTest {
 			super(new CustomerMapper(), new AddressMapper());
 		}
 
+		public CustomerAddressExtractor(ExpectedResults expectedResults) {
+			super(new CustomerMapper(), new AddressMapper(), expectedResults);
+		}
+
+		protected CustomerAddressExtractor(RowMapper<Customer> rootMapper, RowMapper<Address> childMapper) {
+			super(rootMapper, childMapper);
+		}
+
 		@Override
 		protected Integer mapPrimaryKey(ResultSet rs) throws SQLException {
 			return rs.getInt("customer.id");
@@ -108,6 +280,47 @@ public class OneToManyResultSetExtractorTest {
 		}
 	}
 
+	public class LongKeyCustomerAddressExtractor extends
+			LongKeyOneToManyResultSetExtractor<Customer, Address> {
+
+		public LongKeyCustomerAddressExtractor() {
+			super(new CustomerMapper(), new AddressMapper());
+		}
+
+		@Override
+		protected long mapPrimaryKeyAsLong(ResultSet rs) throws SQLException {
+			return rs.getLong("customer.id");
+		}
+
+		@Override
+		protected long mapForeignKeyAsLong(ResultSet rs) throws SQLException {
+			return rs.getLong("address.customer_id");
+		}
+
+		@Override
+		protected void addChild(Customer root, Address child) {
+			root.addAddress(child);
+		}
+	}
+
+	public class IndexedCustomerAddressExtractor extends CustomerAddressExtractor {
+
+		public IndexedCustomerAddressExtractor() {
+			super(new CustomerMapper(), new IndexedAddressMapper());
+		}
+
+		@Override
+		protected Integer mapPrimaryKey(ResultSet rs, ColumnIndex columnIndex) throws SQLException {
+			return rs.getInt(columnIndex.getIndex("customer.id"));
+		}
+
+		@Override
+		protected Integer mapForeignKey(ResultSet rs, ColumnIndex columnIndex) throws SQLException {
+			int foreignKey = rs.getInt(columnIndex.getIndex("address.customer_id"));
+			return rs.wasNull() ? null : foreignKey;
+		}
+	}
+
 	private static class CustomerMapper implements RowMapper<Customer> {
 
 		public Customer mapRow(ResultSet rs, int rowNum) throws SQLException {
@@ -128,4 +341,19 @@ public class OneToManyResultSetExtractorTest {
 			return a;
 		}
 	}
+
+	private static class IndexedAddressMapper implements ColumnIndexRowMapper<Address> {
+
+		public Address mapRow(ResultSet rs, int rowNum) throws SQLException {
+			throw new IllegalStateException("Expected the ColumnIndex variant to be used");
+		}
+
+		public Address mapRow(ResultSet rs, int rowNum, ColumnIndex columnIndex) throws SQLException {
+			Address a = new Address();
+			a.setId(rs.getInt(columnIndex.getIndex("address.id")));
+			a.setStreet(rs.getString(columnIndex.getIndex("ADDRESS.STREET")));
+			a.setCity(rs.getString(columnIndex.getIndex("Address.City")));
+			return a;
+		}
+	}
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.core;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.util.FileCopyUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+
+@ContextConfiguration(locations="classpath:core-context.xml")
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+public class RowBufferTest {
+
+	private static final String QUERY = "select id, title, body, content, created from document order by id";
+
+	private static final TimeZone OTHER_ZONE = TimeZone.getTimeZone("GMT+05:00");
+
+	@Autowired
+	DataSource dataSource;
+
+	JdbcTemplate template;
+
+	RowBufferResultSet cursor;
+
+	List<Object[]> rows;
+
+	Timestamp createdInOtherZone;
+
+	@Before
+	public void before() {
+		template = new JdbcTemplate(dataSource);
+		rows = new ArrayList<Object[]>();
+		cursor = template.query(QUERY, new ResultSetExtractor<RowBufferResultSet>() {
+			public RowBufferResultSet extractData(ResultSet rs) throws SQLException, DataAccessException {
+				RowBuffer buffer = new RowBuffer(rs, new ColumnIndex(rs.getMetaData()));
+				while (rs.next()) {
+					rows.add(buffer.copyRow(rs));
+					if (createdInOtherZone == null) {
+						createdInOtherZone = rs.getTimestamp("created", Calendar.getInstance(OTHER_ZONE));
+					}
+				}
+				return buffer.newCursor();
+			}
+		});
+		Assert.assertEquals(2, rows.size());
+	}
+
+	@Test
+	public void testReadingLobsAfterTheResultSetIsClosed() throws SQLException, IOException {
+		cursor.moveTo(rows.get(0), 1);
+		Assert.assertEquals("Buffered text", cursor.getString("body"));
+		Assert.assertEquals("Buffered text", cursor.getClob("body").getSubString(1, 13));
+		Assert.assertEquals("Buffered text", FileCopyUtils.copyToString(cursor.getCharacterStream("body")));
+		byte[] expected = new byte[] {1, 2, (byte) 0xFF};
+		Assert.assertArrayEquals(expected, cursor.getBytes("content"));
+		Assert.assertArrayEquals(expected, cursor.getBlob("content").getBytes(1, 3));
+		Assert.assertArrayEquals(expected, FileCopyUtils.copyToByteArray(cursor.getBinaryStream(4)));
+		Assert.assertFalse(cursor.wasNull());
+	}
+
+	@Test
+	public void testReadingNullValues() throws SQLException {
+		cursor.moveTo(rows.get(1), 2);
+		Assert.assertNull(cursor.getClob("body"));
+		Assert.assertTrue(cursor.wasNull());
+		Assert.assertNull(cursor.getBinaryStream("content"));
+		Assert.assertNull(cursor.getTimestamp("created", Calendar.getInstance(OTHER_ZONE)));
+		Assert.assertEquals(2, cursor.getInt("id"));
+		Assert.assertFalse(cursor.wasNull());
+	}
+
+	@Test
+	public void testReadingValuesWithCalendar() throws SQLException {
+		cursor.moveTo(rows.get(0), 1);
+		Timestamp created = cursor.getTimestamp("created");
+		Assert.assertEquals(123000000, created.getNanos());
+		Assert.assertEquals(createdInOtherZone, cursor.getTimestamp("created", Calendar.getInstance(OTHER_ZONE)));
+		Assert.assertEquals(createdInOtherZone.getTime(),
+				cursor.getDate(5, Calendar.getInstance(OTHER_ZONE)).getTime());
+	}
+
+	@Test
+	public void testReadingObjectWithEmptyTypeMap() throws SQLException {
+		cursor.moveTo(rows.get(0), 1);
+		Assert.assertEquals("Spring Data", cursor.getObject(2, Collections.<String, Class<?>>emptyMap()));
+		Assert.assertEquals(Long.valueOf(1), cursor.getObject("id", Long.class));
+		Assert.assertEquals(1, cursor.getRow());
+	}
+
+	@Test(expected = SQLFeatureNotSupportedException.class)
+	public void testNavigationIsNotSupported() throws SQLException {
+		cursor.moveTo(rows.get(0), 1);
+		cursor.next();
+	}
+}
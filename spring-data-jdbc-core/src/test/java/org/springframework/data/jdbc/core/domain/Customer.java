@@ -1,6 +1,8 @@
 package org.springframework.data.jdbc.core.domain;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 public class Customer {
@@ -11,6 +13,8 @@ public class Customer {
 
 	private Set<Address> addresses = new HashSet<Address>();
 
+	private List<PurchaseOrder> orders = new ArrayList<PurchaseOrder>();
+
 	public Integer getId() {
 		return id;
 	}
@@ -35,6 +39,14 @@ public class Customer {
 		this.addresses.add(address);
 	}
 
+	public List<PurchaseOrder> getOrders() {
+		return orders;
+	}
+
+	public void addOrder(PurchaseOrder order) {
+		this.orders.add(order);
+	}
+
 	@Override
 	public String toString() {
 		return "Customer: " + " " + name + " " + addresses;
@@ -0,0 +1,39 @@
+package org.springframework.data.jdbc.core.domain;
+
+public class OrderLine {
+
+	private Long id;
+
+	private String product;
+
+	private int quantity;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getProduct() {
+		return product;
+	}
+
+	public void setProduct(String product) {
+		this.product = product;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	public void setQuantity(int quantity) {
+		this.quantity = quantity;
+	}
+
+	@Override
+	public String toString() {
+		return quantity + " x " + product;
+	}
+}
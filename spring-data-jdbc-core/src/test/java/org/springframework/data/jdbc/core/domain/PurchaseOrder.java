@@ -0,0 +1,42 @@
+package org.springframework.data.jdbc.core.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PurchaseOrder {
+
+	private Long id;
+
+	private String description;
+
+	private List<OrderLine> lines = new ArrayList<OrderLine>();
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public void setDescription(String description) {
+		this.description = description;
+	}
+
+	public List<OrderLine> getLines() {
+		return lines;
+	}
+
+	public void addLine(OrderLine line) {
+		this.lines.add(line);
+	}
+
+	@Override
+	public String toString() {
+		return "PurchaseOrder: " + description + " " + lines;
+	}
+}
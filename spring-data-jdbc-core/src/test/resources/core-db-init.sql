@@ -6,4 +6,16 @@ INSERT INTO customer(id, name) values(3, 'Oliver');
 INSERT INTO address(customer_id, street, city) VALUES(1, '6 Main St', 'Newtown');
 INSERT INTO address(customer_id, street, city) VALUES(1, '128 N. South St', 'Middletown');
 INSERT INTO address(customer_id, street, city) VALUES(2, '512 North St', 'London');
+CREATE TABLE purchase_order (id BIGINT IDENTITY PRIMARY KEY, customer_id BIGINT CONSTRAINT purchase_order_customer_ref FOREIGN KEY REFERENCES customer (id), description VARCHAR(255));
+CREATE TABLE order_line (id BIGINT IDENTITY PRIMARY KEY, order_id BIGINT CONSTRAINT order_line_order_ref FOREIGN KEY REFERENCES purchase_order (id), product VARCHAR(255), quantity INTEGER);
+INSERT INTO purchase_order(id, customer_id, description) VALUES(1, 1, 'Books');
+INSERT INTO purchase_order(id, customer_id, description) VALUES(2, 1, 'Music');
+INSERT INTO purchase_order(id, customer_id, description) VALUES(3, 2, 'Empty');
+INSERT INTO order_line(order_id, product, quantity) VALUES(1, 'Spring in Action', 1);
+INSERT INTO order_line(order_id, product, quantity) VALUES(1, 'Pro Spring', 2);
+INSERT INTO order_line(order_id, product, quantity) VALUES(1, 'Spring Data', 1);
+INSERT INTO order_line(order_id, product, quantity) VALUES(2, 'Kind of Blue', 1);
 ALTER TABLE customer ALTER COLUMN id RESTART WITH 20;
+CREATE TABLE document (id BIGINT IDENTITY PRIMARY KEY, title VARCHAR(255), body CLOB, content BLOB, created TIMESTAMP);
+INSERT INTO document(id, title, body, content, created) VALUES(1, 'Spring Data', 'Buffered text', X'0102FF', TIMESTAMP '2016-03-01 12:30:45.123');
+INSERT INTO document(id, title, body, content, created) VALUES(2, 'Empty', NULL, NULL, NULL);
@@ -21,8 +21,8 @@ import oracle.sql.STRUCT;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.springframework.data.jdbc.support.oracle.BeanPropertyStructMapper;
 import org.springframework.data.jdbc.support.oracle.StructMapper;
+import org.springframework.data.jdbc.support.oracle.StructMapperRegistry;
 
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -62,14 +62,14 @@ public class StructDatumMapper<T> implements DatumMapper<T> {
     /**
      * Constructor that takes the type name and a parameter with the class that the data should be
      * mapped from/into.  Using this constructor results in the <code>BeanPropertyStructMapper</code>
-     * being used for the mapping.
+     * for the class shared through the <code>StructMapperRegistry</code> being used for the mapping.
      *  
      * @param typeName name of the database type
      * @param targetClass JavaBean class that STRUCT attributes will be mapped to
      */
     public StructDatumMapper(String typeName, Class<T> targetClass) {
         this.typeName = typeName;
-        this.mapper = new BeanPropertyStructMapper<T>(targetClass);
+        this.mapper = StructMapperRegistry.getSharedInstance().getMapper(targetClass);
     }
 
 
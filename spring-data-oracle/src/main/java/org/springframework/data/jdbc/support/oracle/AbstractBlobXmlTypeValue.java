@@ -0,0 +1,83 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import oracle.sql.BLOB;
+import oracle.xdb.XMLType;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Blob;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Base class for SqlXmlValue implementations that write the XML as bytes straight into
+ * a temporary BLOB, bound as an XMLType created from it. The bytes must be encoded in UTF-8.
+ *
+ * @since 2.0
+ * @see AbstractClobXmlTypeValue
+ */
+public abstract class AbstractBlobXmlTypeValue extends AbstractLobXmlTypeValue {
+
+    /** The Oracle character set id of AL32UTF8, the encoding of XML written as bytes */
+    private static final int AL32UTF8_CHARSET_ID = 873;
+
+    private Blob blob;
+
+
+    @Override
+    XMLType createXmlType(Connection conn) throws SQLException {
+        blob = conn.createBlob();
+        OutputStream os = new BufferedOutputStream(blob.setBinaryStream(1), getBufferSize());
+        boolean written = false;
+        try {
+            writeXml(os);
+            os.close();
+            written = true;
+        }
+        catch (IOException ex) {
+            throw new SQLException("Could not write the XML to a temporary BLOB", ex);
+        }
+        finally {
+            if (!written) {
+                closeQuietly(os);
+            }
+        }
+        return XMLType.createXML(conn, (BLOB) blob, AL32UTF8_CHARSET_ID);
+    }
+
+    /**
+     * Write the XML document, encoded in UTF-8, to the given OutputStream. The OutputStream
+     * is closed afterwards.
+     * @param os the OutputStream of the temporary BLOB
+     * @throws IOException if writing fails
+     * @throws SQLException
+     */
+    protected abstract void writeXml(OutputStream os) throws IOException, SQLException;
+
+    @Override
+    void freeLob() throws SQLException {
+        if (blob != null) {
+            Blob lob = blob;
+            blob = null;
+            lob.free();
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import oracle.sql.CLOB;
+import oracle.xdb.XMLType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Base class for SqlXmlValue implementations that write the XML as characters straight into
+ * a temporary CLOB, bound as an XMLType created from it.
+ *
+ * @since 2.0
+ * @see AbstractBlobXmlTypeValue
+ */
+public abstract class AbstractClobXmlTypeValue extends AbstractLobXmlTypeValue {
+
+    private Clob clob;
+
+
+    @Override
+    XMLType createXmlType(Connection conn) throws SQLException {
+        clob = conn.createClob();
+        Writer writer = new BufferedWriter(clob.setCharacterStream(1), getBufferSize());
+        boolean written = false;
+        try {
+            writeXml(writer);
+            writer.close();
+            written = true;
+        }
+        catch (IOException ex) {
+            throw new SQLException("Could not write the XML to a temporary CLOB", ex);
+        }
+        finally {
+            if (!written) {
+                closeQuietly(writer);
+            }
+        }
+        return XMLType.createXML(conn, (CLOB) clob);
+    }
+
+    /**
+     * Write the XML document to the given Writer. The Writer is closed afterwards.
+     * @param writer the Writer of the temporary CLOB
+     * @throws IOException if writing fails
+     * @throws SQLException
+     */
+    protected abstract void writeXml(Writer writer) throws IOException, SQLException;
+
+    @Override
+    void freeLob() throws SQLException {
+        if (clob != null) {
+            Clob lob = clob;
+            clob = null;
+            lob.free();
+        }
+    }
+
+}
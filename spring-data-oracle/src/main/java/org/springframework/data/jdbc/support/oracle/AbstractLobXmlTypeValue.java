@@ -0,0 +1,128 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import oracle.jdbc.OracleTypes;
+import oracle.xdb.XMLType;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.jdbc.support.xml.SqlXmlValue;
+import org.springframework.util.Assert;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Base class for SqlXmlValue implementations that write the XML straight into a temporary
+ * LOB and bind an XMLType created from it, so that the document is never held in memory
+ * as a whole. Only one buffer of {@link #setBufferSize bufferSize} characters or bytes is
+ * used while the XML is written.
+ *
+ * <p>Subclasses writing characters extend {@link AbstractClobXmlTypeValue}, subclasses
+ * writing bytes extend {@link AbstractBlobXmlTypeValue}. The temporary LOB is freed and
+ * the XMLType closed in {@link #cleanup()}.
+ *
+ * @since 2.0
+ * @see org.springframework.jdbc.support.xml.SqlXmlValue
+ */
+public abstract class AbstractLobXmlTypeValue implements SqlXmlValue {
+
+    /** The default size of the buffer used for writing to the LOB, in characters or bytes */
+    public static final int DEFAULT_BUFFER_SIZE = 32 * 1024;
+
+    /** Logger available to subclasses */
+    protected final Log logger = LogFactory.getLog(getClass());
+
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    private XMLType xmlValue;
+
+
+    /**
+     * Only extended by the CLOB and BLOB backed variants of this class.
+     */
+    AbstractLobXmlTypeValue() {
+    }
+
+
+    /**
+     * Set the size of the buffer used for writing to the LOB. Default is 32K characters or bytes.
+     */
+    public void setBufferSize(int bufferSize) {
+        Assert.isTrue(bufferSize > 0, "The buffer size must be greater than 0");
+        this.bufferSize = bufferSize;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+
+    /**
+     * The implementation for this specific type. This method is called internally by the
+     * Spring Framework during the out parameter processing and it's not accessed by application
+     * code directly.
+     * <p>The buffered stream is closed, and so flushed to the LOB, before the XMLType is created;
+     * a failure to close it is reported like a failure to write.
+     * @see org.springframework.jdbc.support.xml.SqlXmlValue
+     */
+    public void setValue(PreparedStatement ps, int paramIndex) throws SQLException {
+        xmlValue = createXmlType(ps.getConnection());
+        ps.setObject(paramIndex, xmlValue, OracleTypes.OPAQUE);
+    }
+
+    /**
+     * Write the XML into a temporary LOB and create the XMLType from it.
+     * @param conn the Connection to create the LOB and the XMLType with
+     * @return the XMLType to bind
+     * @throws SQLException if creating or writing the LOB fails
+     */
+    abstract XMLType createXmlType(Connection conn) throws SQLException;
+
+    /**
+     * Free the temporary LOB, if one has been created.
+     * @throws SQLException
+     */
+    abstract void freeLob() throws SQLException;
+
+    static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignore) {}
+    }
+
+    /**
+     * Close the XMLType and free the temporary LOB
+     */
+    public void cleanup() {
+        if (xmlValue != null) {
+            xmlValue.close();
+            xmlValue = null;
+        }
+        try {
+            freeLob();
+        }
+        catch (SQLException ex) {
+            logger.debug("Could not free temporary LOB", ex);
+        }
+    }
+
+}
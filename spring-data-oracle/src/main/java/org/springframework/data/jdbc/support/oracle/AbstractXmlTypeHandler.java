@@ -16,11 +16,31 @@
 
 package org.springframework.data.jdbc.support.oracle;
 
+import oracle.sql.BLOB;
+import oracle.sql.CLOB;
 import oracle.xdb.XMLType;
 
+import java.sql.Blob;
+import java.sql.Clob;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.transform.Source;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
 
 import org.springframework.util.Assert;
 import org.springframework.dao.DataRetrievalFailureException;
@@ -28,41 +48,223 @@ import org.w3c.dom.Document;
 
 /**
  * Abstract class handling the creation of an XMLType  from
- * a String, Stream or Document representation.  Delegates to
+ * a String, Document, InputStream, Reader, Source or byte[] representation.  Delegates to
  * subclasses for extraction of the XML content from the XMLType.
  *
+ * <p>Streams, byte arrays and Sources other than a DOM Document are copied into a
+ * temporary LOB using one buffer of {@link #setBufferSize bufferSize} bytes or characters,
+ * so the XML is never held in memory as a whole. The XMLType only refers to the temporary
+ * LOB, which is read when the XMLType is bound, so the LOB is left for the session to free;
+ * it is freed right away only if the XMLType cannot be created. Streams are read to the end
+ * but not closed.
+ *
+ * <p>Binary input is passed to the database as AL32UTF8 and so must be encoded in UTF-8.
+ * Input starting with a UTF-16 byte order mark or declaring another encoding in its XML
+ * declaration is rejected with an IllegalArgumentException; such documents can be passed
+ * as a Reader or a String instead.
+ *
  * @author Thomas Risberg
  * @since 1.0
  */
 public abstract class AbstractXmlTypeHandler implements XmlTypeHandler {
 
+    /** The default size of the buffer used for copying streams into a LOB */
+    public static final int DEFAULT_BUFFER_SIZE = 32 * 1024;
+
+    /** The Oracle character set id of AL32UTF8, the encoding of binary input */
+    private static final int AL32UTF8_CHARSET_ID = 873;
+
+    /** The number of bytes of binary input inspected for a byte order mark and the XML declaration */
+    private static final int PROLOG_LENGTH = 256;
+
+    private static final Pattern ENCODING_DECLARATION = Pattern.compile("encoding\\s*=\\s*[\"']([^\"']*)[\"']");
+
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+
+    /**
+     * Set the size of the buffer used for copying streams into a LOB. Default is 32K.
+     */
+    public void setBufferSize(int bufferSize) {
+        Assert.isTrue(bufferSize > 0, "The buffer size must be greater than 0");
+        this.bufferSize = bufferSize;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
     
     public XMLType createXmlType(Object object, Connection conn) throws DataRetrievalFailureException {
         Assert.notNull(object, "XML input source must not be null");
-        if (!(object instanceof String)) {
-            throw new IllegalArgumentException("XML input source must be of type 'java.lang.String' - received: " + object.getClass().getName());
-        }
         XMLType xml;
         try {
             if ((object instanceof String)) {
                 xml = XMLType.createXML(conn, (String)object);
             }
-            else if ((object instanceof InputStream)) {
-                xml = XMLType.createXML(conn, (InputStream)object);
-            }
             else if ((object instanceof Document)) {
                 xml = XMLType.createXML(conn, (Document)object);
             }
+            else if ((object instanceof InputStream)) {
+                xml = createXmlFromStream((InputStream)object, conn);
+            }
+            else if ((object instanceof byte[])) {
+                xml = createXmlFromStream(new ByteArrayInputStream((byte[])object), conn);
+            }
+            else if ((object instanceof Reader)) {
+                xml = createXmlFromReader((Reader)object, conn);
+            }
+            else if ((object instanceof Source)) {
+                xml = createXmlFromSource((Source)object, conn);
+            }
             else {
                 throw new IllegalArgumentException("The provided value is not a supported type: " + object.getClass().getName());
             }
         } catch (SQLException sqle) {
             throw new DataRetrievalFailureException("Error while creating XMLType", sqle);
+        } catch (IOException ioe) {
+            throw new DataRetrievalFailureException("Error while copying XML into a temporary LOB", ioe);
+        } catch (TransformerException te) {
+            throw new DataRetrievalFailureException("Error while copying XML into a temporary LOB", te);
+        }
+
+        return xml;
+    }
+
+    private XMLType createXmlFromStream(InputStream is, Connection conn) throws SQLException, IOException {
+        InputStream input = assertUtf8(is);
+        Blob blob = conn.createBlob();
+        XMLType xml = null;
+        try {
+            OutputStream os = blob.setBinaryStream(1);
+            try {
+                byte[] buffer = new byte[bufferSize];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    os.write(buffer, 0, read);
+                }
+            }
+            finally {
+                os.close();
+            }
+            xml = XMLType.createXML(conn, (BLOB) blob, AL32UTF8_CHARSET_ID);
+        }
+        finally {
+            if (xml == null) {
+                freeQuietly(blob);
+            }
+        }
+        return xml;
+    }
+
+    private XMLType createXmlFromReader(Reader reader, Connection conn) throws SQLException, IOException {
+        Clob clob = conn.createClob();
+        XMLType xml = null;
+        try {
+            Writer writer = clob.setCharacterStream(1);
+            try {
+                char[] buffer = new char[bufferSize];
+                int read;
+                while ((read = reader.read(buffer)) != -1) {
+                    writer.write(buffer, 0, read);
+                }
+            }
+            finally {
+                writer.close();
+            }
+            xml = XMLType.createXML(conn, (CLOB) clob);
         }
+        finally {
+            if (xml == null) {
+                freeQuietly(clob);
+            }
+        }
+        return xml;
+    }
 
+    private XMLType createXmlFromSource(Source source, Connection conn)
+            throws SQLException, IOException, TransformerException {
+        if (source instanceof DOMSource && ((DOMSource) source).getNode() instanceof Document) {
+            return XMLType.createXML(conn, (Document) ((DOMSource) source).getNode());
+        }
+        if (source instanceof StreamSource) {
+            StreamSource streamSource = (StreamSource) source;
+            if (streamSource.getReader() != null) {
+                return createXmlFromReader(streamSource.getReader(), conn);
+            }
+            if (streamSource.getInputStream() != null) {
+                return createXmlFromStream(streamSource.getInputStream(), conn);
+            }
+        }
+        Clob clob = conn.createClob();
+        XMLType xml = null;
+        try {
+            Writer writer = new BufferedWriter(clob.setCharacterStream(1), bufferSize);
+            try {
+                TransformerFactory.newInstance().newTransformer().transform(source, new StreamResult(writer));
+            }
+            finally {
+                writer.close();
+            }
+            xml = XMLType.createXML(conn, (CLOB) clob);
+        }
+        finally {
+            if (xml == null) {
+                freeQuietly(clob);
+            }
+        }
         return xml;
     }
 
+    /**
+     * Check that the binary input is encoded in UTF-8, as far as its byte order mark and its
+     * XML declaration tell, and return a stream reading it from the start.
+     * @throws IllegalArgumentException if the input is encoded otherwise
+     */
+    private static InputStream assertUtf8(InputStream is) throws IOException {
+        PushbackInputStream input = new PushbackInputStream(is, PROLOG_LENGTH);
+        byte[] prolog = new byte[PROLOG_LENGTH];
+        int length = 0;
+        int read;
+        while (length < PROLOG_LENGTH && (read = input.read(prolog, length, PROLOG_LENGTH - length)) != -1) {
+            length += read;
+        }
+        if (length > 0) {
+            input.unread(prolog, 0, length);
+        }
+        if (length >= 2 && ((prolog[0] == (byte) 0xFE && prolog[1] == (byte) 0xFF) ||
+                (prolog[0] == (byte) 0xFF && prolog[1] == (byte) 0xFE) || prolog[0] == 0 || prolog[1] == 0)) {
+            throw new IllegalArgumentException("Binary XML input must be encoded in UTF-8, not UTF-16");
+        }
+        String declaration = new String(prolog, 0, length, "ISO-8859-1");
+        int start = (declaration.startsWith("\u00EF\u00BB\u00BF") ? 3 : 0);
+        int end = declaration.indexOf("?>");
+        if (!declaration.startsWith("<?xml", start) || end == -1) {
+            return input;
+        }
+        Matcher matcher = ENCODING_DECLARATION.matcher(declaration.substring(0, end));
+        if (matcher.find()) {
+            String encoding = matcher.group(1);
+            if (!encoding.equalsIgnoreCase("UTF-8") && !encoding.equalsIgnoreCase("UTF8") &&
+                    !encoding.equalsIgnoreCase("US-ASCII")) {
+                throw new IllegalArgumentException("Binary XML input must be encoded in UTF-8, not " + encoding);
+            }
+        }
+        return input;
+    }
+
+    private static void freeQuietly(Blob blob) {
+        try {
+            blob.free();
+        } catch (SQLException ignore) {}
+    }
+
+    private static void freeQuietly(Clob clob) {
+        try {
+            clob.free();
+        } catch (SQLException ignore) {}
+    }
+
     public Object getXmlContent(XMLType data) throws DataRetrievalFailureException {
         Assert.notNull(data, "XMLType input must not be null");
         Object result = null;
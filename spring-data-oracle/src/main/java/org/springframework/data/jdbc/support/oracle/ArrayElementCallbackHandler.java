@@ -0,0 +1,36 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import java.sql.SQLException;
+
+/**
+ * Callback interface used by {@link SqlReturnStreamingArray} to process the elements of a
+ * collection OUT parameter one at a time while the collection is read in windows.
+ *
+ * @since 2.0
+ * @see SqlReturnStreamingArray
+ */
+public interface ArrayElementCallbackHandler<T> {
+
+    /**
+     * Process one element of the collection. Elements are passed in collection order.
+     * @param element the element, mapped if a {@link StructMapper} is used
+     * @throws SQLException
+     */
+    void processElement(T element) throws SQLException;
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Struct;
+
+/**
+ * Extension of the {@link StructMapper} interface for mappers that can create the structs
+ * for many source objects at once, resolving the struct type only once for all of them.
+ * Used by {@link SqlStructArrayValue} when the given mapper implements it.
+ *
+ * @since 2.0
+ * @see BeanPropertyStructMapper
+ */
+public interface BatchStructMapper<T> extends StructMapper<T> {
+
+    /**
+     * Create a struct of the defined type for each of the passed in source objects.
+     * @param sources the source objects, iterated once
+     * @param conn database connection to be used to create the Structs
+     * @param typeName name of the Struct type
+     * @return the new Structs, in the order of the source objects
+     * @throws SQLException
+     */
+    Struct[] toStructs(Iterable<? extends T> sources, Connection conn, String typeName) throws SQLException;
+}
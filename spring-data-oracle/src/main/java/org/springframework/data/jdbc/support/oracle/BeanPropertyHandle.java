@@ -0,0 +1,201 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Collection;
+
+import org.springframework.beans.MethodInvocationException;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.NumberUtils;
+
+/**
+ * Accessor for one bean property using {@link MethodHandle}s prepared once per mapped class,
+ * avoiding the reflection and type conversion overhead of a BeanWrapper for values that
+ * already have the property type. Numbers, such as the BigDecimal values of NUMBER attributes,
+ * are converted to numeric property types with {@link NumberUtils} as a BeanWrapper would.
+ *
+ * @since 2.0
+ * @see BeanPropertyStructMapper#setFastPropertyAccess
+ */
+final class BeanPropertyHandle {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private final PropertyDescriptor descriptor;
+
+	private final Class<?> valueType;
+
+	private final boolean primitive;
+
+	private final boolean numeric;
+
+	private final MethodHandle getter;
+
+	private final MethodHandle setter;
+
+	private final MethodParameter writeParameter;
+
+	private final Class<?> elementType;
+
+
+	BeanPropertyHandle(PropertyDescriptor descriptor) {
+		this.descriptor = descriptor;
+		Class<?> propertyType = descriptor.getPropertyType();
+		this.primitive = propertyType.isPrimitive();
+		this.valueType = ClassUtils.resolvePrimitiveIfNecessary(propertyType);
+		this.numeric = NumberUtils.STANDARD_NUMBER_TYPES.contains(this.valueType);
+		this.getter = unreflect(descriptor.getReadMethod(), GETTER_TYPE);
+		this.setter = unreflect(descriptor.getWriteMethod(), SETTER_TYPE);
+		this.writeParameter = (descriptor.getWriteMethod() != null ?
+				new MethodParameter(descriptor.getWriteMethod(), 0) : null);
+		this.elementType = resolveElementType(propertyType, this.writeParameter);
+	}
+
+	/**
+	 * Returns the element type of an array or Collection property, or <code>null</code> for
+	 * other properties or if it can't be resolved.
+	 */
+	private static Class<?> resolveElementType(Class<?> propertyType, MethodParameter writeParameter) {
+		if (propertyType.isArray()) {
+			return propertyType.getComponentType();
+		}
+		if (writeParameter != null && Collection.class.isAssignableFrom(propertyType)) {
+			return ResolvableType.forMethodParameter(writeParameter).asCollection().resolveGeneric();
+		}
+		return null;
+	}
+
+	/**
+	 * Returns a handle adapted to the given generic type, or <code>null</code> if the method is not
+	 * accessible, in which case the BeanWrapper is used for the property.
+	 */
+	private static MethodHandle unreflect(Method method, MethodType type) {
+		if (method == null) {
+			return null;
+		}
+		try {
+			return MethodHandles.publicLookup().unreflect(method).asType(type);
+		}
+		catch (IllegalAccessException ex) {
+			return null;
+		}
+	}
+
+	PropertyDescriptor getDescriptor() {
+		return this.descriptor;
+	}
+
+	String getName() {
+		return this.descriptor.getName();
+	}
+
+	Class<?> getPropertyType() {
+		return this.descriptor.getPropertyType();
+	}
+
+	/**
+	 * Return the element type of an array or Collection property, <code>null</code> if unknown.
+	 */
+	Class<?> getElementType() {
+		return this.elementType;
+	}
+
+	/**
+	 * Return the parameter of the write method, carrying the generic property type.
+	 */
+	MethodParameter getWriteParameter() {
+		return this.writeParameter;
+	}
+
+	/**
+	 * Return whether the property has a primitive type.
+	 */
+	boolean isPrimitive() {
+		return this.primitive;
+	}
+
+	boolean isReadable() {
+		return this.descriptor.getReadMethod() != null;
+	}
+
+	/**
+	 * Return whether the property can be read without a BeanWrapper.
+	 */
+	boolean canGet() {
+		return this.getter != null;
+	}
+
+	/**
+	 * Return whether the given value can be set without a BeanWrapper, i.e. if it has the
+	 * property type or is a Number for a numeric property.
+	 */
+	boolean canSet(Object value) {
+		if (this.setter == null) {
+			return false;
+		}
+		if (value == null) {
+			return !this.primitive;
+		}
+		return (this.valueType.isInstance(value) || (this.numeric && value instanceof Number));
+	}
+
+	Object get(Object bean) {
+		try {
+			return (Object) this.getter.invokeExact(bean);
+		}
+		catch (Error err) {
+			throw err;
+		}
+		catch (Throwable ex) {
+			throw new MethodInvocationException(new PropertyChangeEvent(bean, getName(), null, null), ex);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	void set(Object bean, Object value) {
+		if (this.numeric && value != null && !this.valueType.isInstance(value)) {
+			try {
+				value = NumberUtils.convertNumberToTargetClass((Number) value, (Class<Number>) this.valueType);
+			}
+			catch (IllegalArgumentException ex) {
+				throw new TypeMismatchException(new PropertyChangeEvent(bean, getName(), null, value),
+						getPropertyType(), ex);
+			}
+		}
+		try {
+			this.setter.invokeExact(bean, value);
+		}
+		catch (Error err) {
+			throw err;
+		}
+		catch (Throwable ex) {
+			throw new MethodInvocationException(new PropertyChangeEvent(bean, getName(), null, value), ex);
+		}
+	}
+
+}
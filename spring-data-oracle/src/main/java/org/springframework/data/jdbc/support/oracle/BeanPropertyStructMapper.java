@@ -16,6 +16,8 @@
 
 package org.springframework.data.jdbc.support.oracle;
 
+import oracle.jdbc.OracleConnection;
+import oracle.sql.ArrayDescriptor;
 import oracle.sql.STRUCT;
 import oracle.sql.StructDescriptor;
 import org.apache.commons.logging.Log;
@@ -23,17 +25,21 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.*;
 import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
-import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.util.Assert;
-import org.springframework.util.StringUtils;
 
 import java.beans.PropertyDescriptor;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Struct;
 import java.sql.Connection;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Mapping implementation that converts struct attributes into a new instance
@@ -48,13 +54,28 @@ import java.util.Map;
  * <p>Mapping is provided for fields in the target class for many common types, e.g.:
  * String, boolean, Boolean, byte, Byte, short, Short, int, Integer, long, Long,
  * float, Float, double, Double, BigDecimal, <code>java.util.Date</code>, etc.
+ *
+ * <p>Property values that already have the property type, and numbers for numeric properties,
+ * are read and written through method handles prepared when the mapped class is set; a BeanWrapper
+ * is only used for values that need other type conversion, see {@link #setFastPropertyAccess}.
+ *
+ * <p>The attribute metadata of the types used with {@link #toStruct} and {@link #fromStruct} is only
+ * looked up once per type and compiled into a positional mapping. The mappings are cached by the
+ * schema qualified type name; type names passed to {@link #toStruct} are resolved by the driver the
+ * same way as for creating the struct, so synonyms and the current schema of the session apply, see
+ * {@link #getQualifiedTypeName}. Call {@link #invalidateMetadata} or {@link #clearMetadataCache}
+ * after altering a type.
+ *
+ * <p>Bean values of STRUCT attributes and Collections or arrays for ARRAY attributes are converted
+ * recursively in both directions, see {@link #toNestedValue}. Each nested type is mapped by the mapper
+ * for its class, which compiles and caches the plan for the type on first use.
  * 
  * @author Thomas Risberg
  * @author Juergen Hoeller
  * @author Marc Teufel
  * @since 1.0
  */
-public class BeanPropertyStructMapper<T> implements StructMapper<T> {
+public class BeanPropertyStructMapper<T> implements BatchStructMapper<T> {
 
 	/** Logger available to subclasses */
 	protected final Log logger = LogFactory.getLog(getClass());
@@ -65,6 +86,28 @@ public class BeanPropertyStructMapper<T> implements StructMapper<T> {
 	/** Map of the fields we provide mapping for */
 	private Map<String, PropertyDescriptor> mappedFields;
 
+	/** Map of the accessors for the fields we provide mapping for */
+	private Map<String, BeanPropertyHandle> propertyHandles;
+
+	/** Compiled attribute mappings, cached by type name */
+	private final Map<String, CompiledStructMapping> typeMappings =
+			new ConcurrentHashMap<String, CompiledStructMapping>();
+
+	/** Element type names of the collection types of ARRAY attributes, empty for non-STRUCT elements */
+	private final Map<String, String> arrayElementTypeNames = new ConcurrentHashMap<String, String>();
+
+	/** The most recently used attribute mapping, saving the cache lookup for runs of the same type */
+	private volatile CompiledStructMapping lastMapping;
+
+	/** Whether to access properties through method handles where no conversion is needed */
+	private boolean fastPropertyAccess = true;
+
+	/** Whether we're defaulting primitives when mapping a null value */
+	private boolean primitivesDefaultedForNullValue = false;
+
+	/** Whether the configuration can no longer be changed */
+	private volatile boolean configurationFrozen = false;
+
 
 	/**
 	 * Create a new BeanPropertyRowMapper.
@@ -86,6 +129,7 @@ public class BeanPropertyStructMapper<T> implements StructMapper<T> {
 	 * Set the class that each row should be mapped to.
 	 */
 	public void setMappedClass(Class<T> mappedClass) {
+		assertConfigurable();
 		if (this.mappedClass == null) {
 			initialize(mappedClass);
 		}
@@ -97,6 +141,66 @@ public class BeanPropertyStructMapper<T> implements StructMapper<T> {
 		}
 	}
 
+	/**
+	 * Set whether properties should be accessed through method handles prepared for the
+	 * mapped class instead of a BeanWrapper, default is "true".
+	 * <p>Numbers are converted to numeric property types the same way a BeanWrapper converts
+	 * them; other values that don't have the property type are always set through a BeanWrapper,
+	 * which applies the usual type conversion. Switch this off when {@link #initBeanWrapper}
+	 * registers custom editors that should also apply to values of the property type or to
+	 * numbers.
+	 */
+	public void setFastPropertyAccess(boolean fastPropertyAccess) {
+		assertConfigurable();
+		this.fastPropertyAccess = fastPropertyAccess;
+	}
+
+	/**
+	 * Return whether properties are accessed through method handles where possible.
+	 */
+	public boolean isFastPropertyAccess() {
+		return this.fastPropertyAccess;
+	}
+
+	/**
+	 * Set whether we're defaulting Java primitives in the case of mapping a null value
+	 * from corresponding struct attributes.
+	 * <p>Default is "false", throwing an exception when nulls are mapped to Java primitives.
+	 */
+	public void setPrimitivesDefaultedForNullValue(boolean primitivesDefaultedForNullValue) {
+		assertConfigurable();
+		this.primitivesDefaultedForNullValue = primitivesDefaultedForNullValue;
+	}
+
+	/**
+	 * Return whether we're defaulting Java primitives in the case of mapping a null value
+	 * from corresponding struct attributes.
+	 */
+	public boolean isPrimitivesDefaultedForNullValue() {
+		return this.primitivesDefaultedForNullValue;
+	}
+
+	/**
+	 * Freeze the configuration of this mapper, for example because it is shared by many users.
+	 * Calling a setter afterwards results in an IllegalStateException.
+	 * @see StructMapperRegistry
+	 */
+	public void freezeConfiguration() {
+		this.configurationFrozen = true;
+	}
+
+	/**
+	 * Return whether the configuration of this mapper has been frozen.
+	 */
+	public boolean isConfigurationFrozen() {
+		return this.configurationFrozen;
+	}
+
+	private void assertConfigurable() {
+		Assert.state(!this.configurationFrozen, "The configuration of this mapper is frozen since it is shared; " +
+				"create a separate BeanPropertyStructMapper for a different configuration");
+	}
+
 	/**
 	 * Initialize the mapping metadata for the given class.
 	 * @param mappedClass the mapped class.
@@ -104,14 +208,18 @@ public class BeanPropertyStructMapper<T> implements StructMapper<T> {
 	protected void initialize(Class<T> mappedClass) {
 		this.mappedClass = mappedClass;
 		this.mappedFields = new HashMap<String, PropertyDescriptor>();
+		this.propertyHandles = new HashMap<String, BeanPropertyHandle>();
 		PropertyDescriptor[] pds = BeanUtils.getPropertyDescriptors(mappedClass);
 		for (int i = 0; i < pds.length; i++) {
 			PropertyDescriptor pd = pds[i];
 			if (pd.getWriteMethod() != null) {
+				BeanPropertyHandle handle = new BeanPropertyHandle(pd);
 				this.mappedFields.put(pd.getName().toLowerCase(), pd);
+				this.propertyHandles.put(pd.getName().toLowerCase(), handle);
 				String underscoredName = underscoreName(pd.getName());
 				if (!pd.getName().toLowerCase().equals(underscoredName)) {
 					this.mappedFields.put(underscoredName, pd);
+					this.propertyHandles.put(underscoredName, handle);
 				}
 			}
 		}
@@ -156,69 +264,240 @@ public class BeanPropertyStructMapper<T> implements StructMapper<T> {
 	}
 
 
+    /**
+     * Create a Struct of the given type from the properties of the source object.
+     * <p>The attribute to property mapping for a type is compiled from the type metadata on first use
+     * and cached by qualified type name, see {@link #clearMetadataCache()}.
+     */
     public Struct toStruct(T source, Connection conn, String typeName) throws SQLException {
-        StructDescriptor descriptor = new StructDescriptor(typeName, conn);
-        ResultSetMetaData rsmd = descriptor.getMetaData();
-        int columns = rsmd.getColumnCount();
-        Object[] values = new Object[columns];
-        for (int i = 1; i <= columns; i++) {
-            String column = JdbcUtils.lookupColumnName(rsmd, i).toLowerCase();
-            PropertyDescriptor fieldMeta = (PropertyDescriptor) this.mappedFields.get(column);
-            if (fieldMeta != null) {
-                BeanWrapper bw = new BeanWrapperImpl(source);
-                if (bw.isReadableProperty(fieldMeta.getName())) {
-                    try {
-                        if (logger.isDebugEnabled()) {
-                            logger.debug("Mapping column named \"" + column + "\"" +
-                                    " to property \"" + fieldMeta.getName() + "\"");
-                        }
-                        values[i - 1] = bw.getPropertyValue(fieldMeta.getName());
-                    }
-                    catch (NotReadablePropertyException ex) {
-                        throw new DataRetrievalFailureException(
-                                "Unable to map column " + column + " to property " + fieldMeta.getName(), ex);
-                    }
+        CompiledStructMapping mapping = getCompiledMapping(getQualifiedTypeName(typeName, conn), typeName, conn);
+	    Struct struct = conn.createStruct(typeName, toAttributes(source, mapping, conn));
+        return struct;
+    }
+
+    /**
+     * Create a Struct of the given type for each of the source objects, compiling the
+     * attribute to property mapping for the type at most once for all of them.
+     */
+    public Struct[] toStructs(Iterable<? extends T> sources, Connection conn, String typeName) throws SQLException {
+        CompiledStructMapping mapping = getCompiledMapping(getQualifiedTypeName(typeName, conn), typeName, conn);
+        if (sources instanceof Collection) {
+            Struct[] structs = new Struct[((Collection<?>) sources).size()];
+            int i = 0;
+            for (T source : sources) {
+                structs[i++] = conn.createStruct(typeName, toAttributes(source, mapping, conn));
+            }
+            return structs;
+        }
+        List<Struct> structs = new ArrayList<Struct>();
+        for (T source : sources) {
+            structs.add(conn.createStruct(typeName, toAttributes(source, mapping, conn)));
+        }
+        return structs.toArray(new Struct[structs.size()]);
+    }
+
+    private Object[] toAttributes(T source, CompiledStructMapping mapping, Connection conn) throws SQLException {
+        int[] positions = mapping.getterPositions;
+        BeanPropertyHandle[] getters = mapping.getters;
+        Object[] values = new Object[mapping.getAttributeCount()];
+        BeanWrapper bw = null;
+        for (int i = 0; i < getters.length; i++) {
+            BeanPropertyHandle getter = getters[i];
+            if (this.fastPropertyAccess && getter.canGet()) {
+                values[positions[i]] = getter.get(source);
+            }
+            else {
+                if (bw == null) {
+                    bw = new BeanWrapperImpl(source);
+                }
+                try {
+                    values[positions[i]] = bw.getPropertyValue(getter.getName());
                 }
-                else {
-                    logger.warn("Unable to access the getter for " + fieldMeta.getName() +
-                            ".  Check that " + "get" + StringUtils.capitalize(fieldMeta.getName()) +
-                            " is declared and has public access.");
+                catch (NotReadablePropertyException ex) {
+                    throw new DataRetrievalFailureException(
+                            "Unable to map attribute " + (positions[i] + 1) + " to property " + getter.getName(), ex);
                 }
             }
+            if (mapping.getterTypeNames[i] != null && values[positions[i]] != null) {
+                values[positions[i]] = toNestedValue(values[positions[i]], mapping.getterTypes[i],
+                        mapping.getterTypeNames[i], conn);
+            }
         }
-	    Struct struct = conn.createStruct(typeName, values);
-        return struct;
+        return values;
+    }
+
+    /**
+     * Convert the value of a property mapped to a STRUCT or ARRAY attribute. Beans are mapped to
+     * STRUCTs with the mapper returned by {@link #getNestedMapper}, Collections and arrays are
+     * created as ARRAYs of the attribute type with their bean elements mapped to STRUCTs the same way.
+     * Values that already are JDBC types are returned as they are.
+     * @param value the property value, not <code>null</code>
+     * @param sqlType the SQL type of the attribute, <code>Types.STRUCT</code> or <code>Types.ARRAY</code>
+     * @param typeName the type name of the attribute
+     * @param conn the Connection to create the nested values with
+     * @return the attribute value
+     * @throws SQLException
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    protected Object toNestedValue(Object value, int sqlType, String typeName, Connection conn) throws SQLException {
+        if (sqlType == Types.STRUCT) {
+            if (value instanceof Struct || BeanUtils.isSimpleValueType(value.getClass())) {
+                return value;
+            }
+            StructMapper mapper = getNestedMapper(value.getClass());
+            return mapper.toStruct(value, conn, typeName);
+        }
+        Object elements;
+        if (value instanceof Collection) {
+            elements = ((Collection<?>) value).toArray();
+        }
+        else if (value.getClass().isArray()) {
+            elements = value;
+        }
+        else {
+            return value;
+        }
+        if (elements instanceof Object[]) {
+            String elementTypeName = getArrayElementTypeName(typeName, conn);
+            if (elementTypeName != null) {
+                Object[] beans = (Object[]) elements;
+                Object[] structs = new Object[beans.length];
+                for (int i = 0; i < beans.length; i++) {
+                    structs[i] = (beans[i] != null ? toNestedValue(beans[i], Types.STRUCT, elementTypeName, conn) : null);
+                }
+                elements = structs;
+            }
+        }
+        return ((OracleConnection) conn).createOracleArray(typeName, elements);
+    }
+
+    /**
+     * Convert the value of a STRUCT or ARRAY attribute for the given property. STRUCTs are mapped
+     * to beans of the property type, ARRAYs are converted to a Collection or array of the property
+     * type with their STRUCT elements mapped to beans of the element type. The mappers are taken
+     * from {@link #getNestedMapper} and compile the plan for a nested type on its first value, so
+     * types referring to each other are never compiled recursively.
+     */
+    @SuppressWarnings("rawtypes")
+    private Object fromNestedValue(Object value, BeanPropertyHandle property) throws SQLException {
+        Class<?> propertyType = property.getPropertyType();
+        if (propertyType.isInstance(value)) {
+            return value;
+        }
+        if (value instanceof Struct) {
+            if (!isNestedBeanType(propertyType)) {
+                return value;
+            }
+            return getNestedMapper(propertyType).fromStruct((Struct) value);
+        }
+        if (value instanceof java.sql.Array) {
+            if (!propertyType.isArray() && !Collection.class.isAssignableFrom(propertyType)) {
+                return value;
+            }
+            Object elements = ((java.sql.Array) value).getArray();
+            Class<?> elementType = property.getElementType();
+            if (elements instanceof Object[] && elementType != null && isNestedBeanType(elementType)) {
+                Object[] structs = (Object[]) elements;
+                List<Object> beans = new ArrayList<Object>(structs.length);
+                StructMapper mapper = getNestedMapper(elementType);
+                for (Object element : structs) {
+                    beans.add(element instanceof Struct ? mapper.fromStruct((Struct) element) : element);
+                }
+                elements = beans;
+            }
+            return new SimpleTypeConverter().convertIfNecessary(elements, propertyType, property.getWriteParameter());
+        }
+        return value;
+    }
+
+    private static boolean isNestedBeanType(Class<?> type) {
+        return (type != Object.class && !BeanUtils.isSimpleProperty(type) && !Struct.class.isAssignableFrom(type) &&
+                !Collection.class.isAssignableFrom(type) && !Map.class.isAssignableFrom(type));
+    }
+
+    /**
+     * Return the mapper used for bean values of STRUCT attributes and collection elements.
+     * <p>The default implementation returns this mapper for the mapped class and otherwise the
+     * mapper shared by the {@link StructMapperRegistry}, so nested types are compiled once.
+     * @param mappedClass the class of the nested value
+     * @return the mapper for the class
+     */
+    protected StructMapper<?> getNestedMapper(Class<?> mappedClass) {
+        if (mappedClass.equals(this.mappedClass)) {
+            return this;
+        }
+        return StructMapperRegistry.getSharedInstance().getMapper(mappedClass);
+    }
+
+    /**
+     * Return the type name of the elements of the given collection type if they are STRUCTs.
+     * The result is cached by type name.
+     * @param arrayTypeName the name of the collection type
+     * @param conn the Connection to use
+     * @return the element type name, or <code>null</code> if the elements are not STRUCTs
+     * @throws SQLException
+     */
+    private String getArrayElementTypeName(String arrayTypeName, Connection conn) throws SQLException {
+        String elementTypeName = this.arrayElementTypeNames.get(arrayTypeName);
+        if (elementTypeName == null) {
+            String structTypeName = getArrayStructTypeName(arrayTypeName, conn);
+            elementTypeName = (structTypeName != null ? structTypeName : "");
+            this.arrayElementTypeNames.put(arrayTypeName, elementTypeName);
+        }
+        return (elementTypeName.length() > 0 ? elementTypeName : null);
     }
 
+	/**
+	 * Retrieve the type name of the elements of the given collection type.
+	 * <p>The default implementation uses an {@link ArrayDescriptor} for the type.
+	 * @param arrayTypeName the name of the collection type
+	 * @param conn the Connection to use
+	 * @return the element type name, or <code>null</code> if the elements are not STRUCTs
+	 * @throws SQLException
+	 */
+	protected String getArrayStructTypeName(String arrayTypeName, Connection conn) throws SQLException {
+		ArrayDescriptor descriptor = ArrayDescriptor.createDescriptor(arrayTypeName, conn);
+		return (descriptor.getBaseType() == Types.STRUCT ? descriptor.getBaseName() : null);
+	}
+
     /**
 	 * Extract the values for all attributes in the struct.
-	 * <p>Utilizes public setters and result set metadata.
+	 * <p>Utilizes public setters and the attribute metadata of the struct type, compiled
+	 * on first use and cached by the qualified type name the driver reports for the struct,
+	 * see {@link #clearMetadataCache()}.
 	 * @see java.sql.ResultSetMetaData
 	 */
 	public T fromStruct(Struct struct) throws SQLException {
         Assert.state(this.mappedClass != null, "Mapped class was not specified");
+        CompiledStructMapping mapping = getCompiledMapping(struct.getSQLTypeName(), struct);
         T mappedObject = BeanUtils.instantiateClass(this.mappedClass);
-        BeanWrapper bw = PropertyAccessorFactory.forBeanPropertyAccess(mappedObject);
-        initBeanWrapper(bw);
-        
-        ResultSetMetaData rsmd = ((STRUCT) struct).getDescriptor().getMetaData();
         Object[] attr = struct.getAttributes();
-        int columnCount = rsmd.getColumnCount();
-        for (int index = 1; index <= columnCount; index++) {
-            String column = JdbcUtils.lookupColumnName(rsmd, index).toLowerCase();
-            PropertyDescriptor pd = (PropertyDescriptor) this.mappedFields.get(column);
-            if (pd != null) {
+        int[] positions = mapping.setterPositions;
+        BeanPropertyHandle[] setters = mapping.setters;
+        BeanWrapper bw = null;
+        for (int i = 0; i < setters.length; i++) {
+            BeanPropertyHandle setter = setters[i];
+            Object value = attr[positions[i]];
+            if (value != null && mapping.setterTypeNames[i] != null) {
+                value = fromNestedValue(value, setter);
+            }
+            if (value == null && this.primitivesDefaultedForNullValue && setter.isPrimitive()) {
+                continue;
+            }
+            if (this.fastPropertyAccess && setter.canSet(value)) {
+                setter.set(mappedObject, value);
+            }
+            else {
+                if (bw == null) {
+                    bw = PropertyAccessorFactory.forBeanPropertyAccess(mappedObject);
+                    initBeanWrapper(bw);
+                }
                 try {
-                    Object value = attr[index - 1];
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("Mapping column '" + column + "' to property '" +
-                                pd.getName() + "' of type " + pd.getPropertyType());
-                    }
-                    bw.setPropertyValue(pd.getName(), value);
+                    bw.setPropertyValue(setter.getName(), value);
                 }
                 catch (NotWritablePropertyException ex) {
                     throw new DataRetrievalFailureException(
-                            "Unable to map column " + column + " to property " + pd.getName(), ex);
+                            "Unable to map attribute " + (positions[i] + 1) + " to property " + setter.getName(), ex);
                 }
             }
         }
@@ -226,9 +505,130 @@ public class BeanPropertyStructMapper<T> implements StructMapper<T> {
         return mappedObject;
     }
 
+    /**
+     * Return the compiled mapping for the type of the given struct, compiling it from the
+     * attribute metadata of the struct on first use.
+     */
+    private CompiledStructMapping getCompiledMapping(String qualifiedTypeName, Struct struct) throws SQLException {
+        CompiledStructMapping mapping = getCachedMapping(qualifiedTypeName);
+        if (mapping == null) {
+            mapping = compileMapping(qualifiedTypeName, getStructMetaData(struct));
+        }
+        return mapping;
+    }
+
+    /**
+     * Return the compiled mapping for the given type, compiling it from the attribute metadata
+     * looked up for the type name as given by the caller on first use.
+     */
+    private CompiledStructMapping getCompiledMapping(String qualifiedTypeName, String typeName, Connection conn)
+            throws SQLException {
+        CompiledStructMapping mapping = getCachedMapping(qualifiedTypeName);
+        if (mapping == null) {
+            mapping = compileMapping(qualifiedTypeName, getStructMetaData(typeName, conn));
+        }
+        return mapping;
+    }
+
+    private CompiledStructMapping getCachedMapping(String qualifiedTypeName) {
+        CompiledStructMapping mapping = this.lastMapping;
+        if (mapping == null || !mapping.getTypeName().equals(qualifiedTypeName)) {
+            mapping = this.typeMappings.get(qualifiedTypeName);
+            if (mapping != null) {
+                this.lastMapping = mapping;
+            }
+        }
+        return mapping;
+    }
+
+    private CompiledStructMapping compileMapping(String qualifiedTypeName, ResultSetMetaData rsmd)
+            throws SQLException {
+        CompiledStructMapping mapping =
+                CompiledStructMapping.compile(qualifiedTypeName, rsmd, this.propertyHandles, this.logger);
+        this.typeMappings.put(qualifiedTypeName, mapping);
+        this.lastMapping = mapping;
+        return mapping;
+    }
+
+    /**
+     * Remove the cached attribute mapping of all types, for example after object types
+     * have been altered. The mappings are compiled again on the next use of each type.
+     */
+    public void clearMetadataCache() {
+        this.typeMappings.clear();
+        this.arrayElementTypeNames.clear();
+        this.lastMapping = null;
+    }
+
+    /**
+     * Remove the cached attribute mapping of the given type, for example after the type
+     * has been altered. The mapping is compiled again on its next use.
+     * @param typeName the name of the type, not of a synonym for it, removing the mappings
+     * of the type in all schemas if it is not qualified
+     */
+    public void invalidateMetadata(String typeName) {
+        removeType(this.typeMappings.keySet().iterator(), typeName);
+        removeType(this.arrayElementTypeNames.keySet().iterator(), typeName);
+        this.lastMapping = null;
+    }
+
+    private static void removeType(Iterator<String> typeNames, String typeName) {
+        String unqualified = (typeName.indexOf('.') == -1 ? "." + typeName : null);
+        while (typeNames.hasNext()) {
+            String name = typeNames.next();
+            if (name.equals(typeName) || (unqualified != null && name.endsWith(unqualified))) {
+                typeNames.remove();
+            }
+        }
+    }
+
+	/**
+	 * Return the schema qualified name of the object type the given name refers to, which
+	 * the compiled attribute mapping of the type is cached by.
+	 * <p>The default implementation returns the name of the {@link StructDescriptor} for the type,
+	 * which the driver resolves the same way as for {@link Connection#createStruct}, following
+	 * synonyms and the current schema of the session. The driver caches the descriptor for the
+	 * connection, so this only reaches the database for the first use of a type name.
+	 * @param typeName the name of the object type as given by the caller
+	 * @param conn the Connection to use
+	 * @return the qualified type name
+	 * @throws SQLException
+	 */
+	protected String getQualifiedTypeName(String typeName, Connection conn) throws SQLException {
+		return StructDescriptor.createDescriptor(typeName, conn).getName();
+	}
+
+	/**
+	 * Retrieve the metadata describing the attributes of the given object type.
+	 * <p>The default implementation uses a {@link StructDescriptor} for the type.
+	 * @param typeName the name of the object type
+	 * @param conn the Connection to use
+	 * @return the attribute metadata
+	 * @throws SQLException
+	 */
+	protected ResultSetMetaData getStructMetaData(String typeName, Connection conn) throws SQLException {
+		return new StructDescriptor(typeName, conn).getMetaData();
+	}
+
+	/**
+	 * Retrieve the metadata describing the attributes of the given struct.
+	 * <p>The default implementation uses the descriptor of the Oracle {@link STRUCT}, or the
+	 * metadata copied with a struct detached for mapping on another thread.
+	 * @param struct the struct to be mapped
+	 * @return the attribute metadata
+	 * @throws SQLException
+	 */
+	protected ResultSetMetaData getStructMetaData(Struct struct) throws SQLException {
+		if (struct instanceof DetachedStruct) {
+			return ((DetachedStruct) struct).getMetaData();
+		}
+		return ((STRUCT) struct).getDescriptor().getMetaData();
+	}
+
 	/**
 	 * Initialize the given BeanWrapper to be used for row mapping.
-	 * To be called for each row.
+	 * To be called for each struct that has attribute values needing type conversion,
+	 * or for each struct if fast property access is switched off.
 	 * <p>The default implementation is empty. Can be overridden in subclasses.
 	 * @param bw the BeanWrapper to initialize
 	 */
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * The mapping between the attributes of an object type and the properties of a mapped class,
+ * compiled once from the attribute metadata into arrays of attribute positions and property
+ * accessors so that mapping a struct is a plain loop over its attributes.
+ *
+ * @since 2.0
+ * @see BeanPropertyStructMapper
+ */
+final class CompiledStructMapping {
+
+	private final String typeName;
+
+	private final int attributeCount;
+
+	/** Attribute positions, 0-based, of the properties in {@link #getters} */
+	final int[] getterPositions;
+
+	/** Readable properties mapped to attributes */
+	final BeanPropertyHandle[] getters;
+
+	/** Type names of the attributes in {@link #getterPositions} that are STRUCTs or ARRAYs, <code>null</code> for others */
+	final String[] getterTypeNames;
+
+	/** SQL types of the attributes in {@link #getterPositions} */
+	final int[] getterTypes;
+
+	/** Attribute positions, 0-based, of the properties in {@link #setters} */
+	final int[] setterPositions;
+
+	/** Writable properties mapped to attributes */
+	final BeanPropertyHandle[] setters;
+
+	/** Type names of the attributes in {@link #setterPositions} that are STRUCTs or ARRAYs, <code>null</code> for others */
+	final String[] setterTypeNames;
+
+
+	private CompiledStructMapping(String typeName, int attributeCount, List<Integer> getterPositions,
+			List<BeanPropertyHandle> getters, List<Integer> setterPositions, List<BeanPropertyHandle> setters,
+			int[] attributeTypes, String[] attributeTypeNames) {
+		this.typeName = typeName;
+		this.attributeCount = attributeCount;
+		this.getterPositions = toIntArray(getterPositions);
+		this.getters = getters.toArray(new BeanPropertyHandle[getters.size()]);
+		this.getterTypes = new int[this.getterPositions.length];
+		this.getterTypeNames = new String[this.getterPositions.length];
+		for (int i = 0; i < this.getterPositions.length; i++) {
+			this.getterTypes[i] = attributeTypes[this.getterPositions[i]];
+			this.getterTypeNames[i] = attributeTypeNames[this.getterPositions[i]];
+		}
+		this.setterPositions = toIntArray(setterPositions);
+		this.setters = setters.toArray(new BeanPropertyHandle[setters.size()]);
+		this.setterTypeNames = new String[this.setterPositions.length];
+		for (int i = 0; i < this.setterPositions.length; i++) {
+			this.setterTypeNames[i] = attributeTypeNames[this.setterPositions[i]];
+		}
+	}
+
+	private static int[] toIntArray(List<Integer> values) {
+		int[] result = new int[values.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = values.get(i);
+		}
+		return result;
+	}
+
+	/**
+	 * Compile the mapping for the given object type.
+	 * @param typeName the name of the object type
+	 * @param rsmd the attribute metadata of the object type
+	 * @param properties the writable properties of the mapped class keyed by lower case and
+	 * underscored property name
+	 * @param logger the logger to report the mapping to
+	 * @return the compiled mapping
+	 * @throws SQLException
+	 */
+	static CompiledStructMapping compile(String typeName, ResultSetMetaData rsmd,
+			Map<String, BeanPropertyHandle> properties, Log logger) throws SQLException {
+		int attributeCount = rsmd.getColumnCount();
+		List<Integer> getterPositions = new ArrayList<Integer>(attributeCount);
+		List<BeanPropertyHandle> getters = new ArrayList<BeanPropertyHandle>(attributeCount);
+		List<Integer> setterPositions = new ArrayList<Integer>(attributeCount);
+		List<BeanPropertyHandle> setters = new ArrayList<BeanPropertyHandle>(attributeCount);
+		int[] attributeTypes = new int[attributeCount];
+		String[] attributeTypeNames = new String[attributeCount];
+		for (int i = 1; i <= attributeCount; i++) {
+			String column = JdbcUtils.lookupColumnName(rsmd, i).toLowerCase();
+			BeanPropertyHandle property = properties.get(column);
+			if (property != null) {
+				attributeTypes[i - 1] = rsmd.getColumnType(i);
+				if (attributeTypes[i - 1] == Types.STRUCT || attributeTypes[i - 1] == Types.ARRAY) {
+					attributeTypeNames[i - 1] = rsmd.getColumnTypeName(i);
+				}
+				if (logger.isDebugEnabled()) {
+					logger.debug("Mapping attribute '" + column + "' of type " + typeName + " to property '" +
+							property.getName() + "' of type " + property.getDescriptor().getPropertyType());
+				}
+				setterPositions.add(i - 1);
+				setters.add(property);
+				if (property.isReadable()) {
+					getterPositions.add(i - 1);
+					getters.add(property);
+				}
+				else {
+					logger.warn("Unable to access the getter for " + property.getName() +
+							".  Check that " + "get" + StringUtils.capitalize(property.getName()) +
+							" is declared and has public access.");
+				}
+			}
+		}
+		return new CompiledStructMapping(typeName, attributeCount, getterPositions, getters, setterPositions, setters,
+				attributeTypes, attributeTypeNames);
+	}
+
+	/**
+	 * Return the name of the object type this mapping was compiled for.
+	 */
+	String getTypeName() {
+		return this.typeName;
+	}
+
+	/**
+	 * Return the number of attributes of the object type.
+	 */
+	int getAttributeCount() {
+		return this.attributeCount;
+	}
+
+}
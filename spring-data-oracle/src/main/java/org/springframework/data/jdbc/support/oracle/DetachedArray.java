@@ -0,0 +1,102 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Map;
+
+/**
+ * An {@link Array} holding the elements copied from a driver ARRAY, so that it can be mapped
+ * on another thread without using the connection. STRUCT and ARRAY elements are detached as well.
+ * Only the methods returning the elements and the base type are supported.
+ *
+ * @since 2.0
+ * @see DetachedStruct
+ */
+final class DetachedArray implements Array {
+
+	private final String baseTypeName;
+
+	private final int baseType;
+
+	private final Object elements;
+
+
+	DetachedArray(String baseTypeName, int baseType, Object elements) {
+		this.baseTypeName = baseTypeName;
+		this.baseType = baseType;
+		this.elements = elements;
+	}
+
+	public String getBaseTypeName() {
+		return this.baseTypeName;
+	}
+
+	public int getBaseType() {
+		return this.baseType;
+	}
+
+	/**
+	 * Return the detached elements. The array is shared, not copied.
+	 */
+	public Object getArray() {
+		return this.elements;
+	}
+
+	public Object getArray(Map<String, Class<?>> map) {
+		return this.elements;
+	}
+
+	public Object getArray(long index, int count) throws SQLException {
+		int length = java.lang.reflect.Array.getLength(this.elements);
+		if (index < 1 || index > length + 1 || count < 0) {
+			throw new SQLException("Invalid range of elements: index " + index + ", count " + count);
+		}
+		int from = (int) index - 1;
+		int to = Math.min(from + count, length);
+		Object range = java.lang.reflect.Array.newInstance(this.elements.getClass().getComponentType(), to - from);
+		System.arraycopy(this.elements, from, range, 0, to - from);
+		return range;
+	}
+
+	public Object getArray(long index, int count, Map<String, Class<?>> map) throws SQLException {
+		return getArray(index, count);
+	}
+
+	public ResultSet getResultSet() throws SQLException {
+		throw new SQLFeatureNotSupportedException("Detached arrays don't support getResultSet");
+	}
+
+	public ResultSet getResultSet(Map<String, Class<?>> map) throws SQLException {
+		throw new SQLFeatureNotSupportedException("Detached arrays don't support getResultSet");
+	}
+
+	public ResultSet getResultSet(long index, int count) throws SQLException {
+		throw new SQLFeatureNotSupportedException("Detached arrays don't support getResultSet");
+	}
+
+	public ResultSet getResultSet(long index, int count, Map<String, Class<?>> map) throws SQLException {
+		throw new SQLFeatureNotSupportedException("Detached arrays don't support getResultSet");
+	}
+
+	public void free() {
+	}
+
+}
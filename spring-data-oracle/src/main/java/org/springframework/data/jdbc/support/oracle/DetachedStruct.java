@@ -0,0 +1,129 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import java.sql.Array;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Struct;
+import java.util.Map;
+
+import javax.sql.rowset.RowSetMetaDataImpl;
+
+import oracle.sql.STRUCT;
+
+/**
+ * A {@link Struct} holding attribute values and attribute metadata copied from a driver
+ * STRUCT, so that it can be mapped on another thread without using the connection.
+ * Nested STRUCT attributes are detached as well, and the elements of ARRAY attributes are
+ * read into a {@link DetachedArray}.
+ *
+ * @since 2.0
+ * @see SqlReturnStructArray#setExecutor
+ */
+final class DetachedStruct implements Struct {
+
+	private final String typeName;
+
+	private final Object[] attributes;
+
+	private final ResultSetMetaData metaData;
+
+
+	private DetachedStruct(String typeName, Object[] attributes, ResultSetMetaData metaData) {
+		this.typeName = typeName;
+		this.attributes = attributes;
+		this.metaData = metaData;
+	}
+
+	/**
+	 * Copy the attributes and the attribute metadata of the given struct.
+	 * @param struct the driver STRUCT to detach
+	 * @param metaDataCache snapshots of the attribute metadata already taken, keyed by type name
+	 * @return the detached struct
+	 * @throws SQLException
+	 */
+	static DetachedStruct detach(Struct struct, Map<String, ResultSetMetaData> metaDataCache) throws SQLException {
+		String typeName = struct.getSQLTypeName();
+		ResultSetMetaData metaData = metaDataCache.get(typeName);
+		if (metaData == null) {
+			metaData = snapshot(((STRUCT) struct).getDescriptor().getMetaData());
+			metaDataCache.put(typeName, metaData);
+		}
+		Object[] attributes = struct.getAttributes();
+		for (int i = 0; i < attributes.length; i++) {
+			attributes[i] = detachValue(attributes[i], metaDataCache);
+		}
+		return new DetachedStruct(typeName, attributes, metaData);
+	}
+
+	/**
+	 * Detach the given attribute or element value if it is a STRUCT or an ARRAY, reading the
+	 * elements of an ARRAY and detaching them in turn.
+	 */
+	private static Object detachValue(Object value, Map<String, ResultSetMetaData> metaDataCache)
+			throws SQLException {
+		if (value instanceof Struct) {
+			return detach((Struct) value, metaDataCache);
+		}
+		if (value instanceof Array) {
+			Array array = (Array) value;
+			Object elements = array.getArray();
+			if (elements instanceof Object[]) {
+				Object[] values = (Object[]) elements;
+				for (int i = 0; i < values.length; i++) {
+					values[i] = detachValue(values[i], metaDataCache);
+				}
+			}
+			return new DetachedArray(array.getBaseTypeName(), array.getBaseType(), elements);
+		}
+		return value;
+	}
+
+	private static ResultSetMetaData snapshot(ResultSetMetaData rsmd) throws SQLException {
+		int columnCount = rsmd.getColumnCount();
+		RowSetMetaDataImpl copy = new RowSetMetaDataImpl();
+		copy.setColumnCount(columnCount);
+		for (int i = 1; i <= columnCount; i++) {
+			copy.setColumnName(i, rsmd.getColumnName(i));
+			copy.setColumnLabel(i, rsmd.getColumnLabel(i));
+			copy.setColumnType(i, rsmd.getColumnType(i));
+			copy.setColumnTypeName(i, rsmd.getColumnTypeName(i));
+		}
+		return copy;
+	}
+
+	/**
+	 * Return the attribute metadata of the struct type.
+	 */
+	ResultSetMetaData getMetaData() {
+		return this.metaData;
+	}
+
+	public String getSQLTypeName() {
+		return this.typeName;
+	}
+
+	public Object[] getAttributes() {
+		return this.attributes;
+	}
+
+	public Object[] getAttributes(Map<String, Class<?>> map) {
+		return this.attributes;
+	}
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.springframework.data.jdbc.support.DatabaseType;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Support for binding the values of an <code>IN</code> list so that the SQL text does not depend on
+ * the number of values, which keeps the statement cacheable however many values are passed.
+ *
+ * <p>On Oracle all values are bound as one collection through a {@link SqlArrayValue}:
+ *
+ * <pre class="code">IN (SELECT column_value FROM TABLE(?))</pre>
+ *
+ * The collection type must be a SQL level collection of the element type, for example the built-in
+ * <code>SYS.ODCINUMBERLIST</code> and <code>SYS.ODCIVARCHAR2LIST</code> or a type created with
+ * <code>CREATE TYPE NUMBER_TAB AS TABLE OF NUMBER</code>.
+ *
+ * <p>For any other {@link DatabaseType} the values are bound as individual placeholders, padded to
+ * the next of a few bucket sizes by repeating the last value, so only as many different statements
+ * are created as there are buckets. Lists longer than the largest bucket are rejected; the default
+ * largest bucket is 1000, the most expressions Oracle allows in an <code>IN</code> list. An empty list
+ * is bound as a single <code>NULL</code>, which matches no rows with <code>IN</code> but also makes
+ * <code>NOT IN</code> match no rows, so check for an empty list before negating the clause.
+ *
+ * <p>A primitive array passed as the only value, such as a <code>long[]</code>, is taken as the list
+ * of values. A <code>byte[]</code> is bound as a single binary value.
+ *
+ * <p>A usage example:
+ *
+ * <pre class="code">
+ * OracleInListSupport inListSupport = new OracleInListSupport(DatabaseType.ORACLE, "SYS.ODCINUMBERLIST");
+ * ...
+ * InClause in = inListSupport.inClause(ids);
+ * List&lt;Actor&gt; actors = jdbcTemplate.query("SELECT id, name FROM actor WHERE id " + in.getSql(),
+ *     in.getParameters(), actorMapper);
+ * </pre>
+ *
+ * @since 2.0
+ * @see SqlArrayValue
+ */
+public class OracleInListSupport {
+
+    /** The default placeholder counts used when the values can't be bound as a collection */
+    private static final int[] DEFAULT_BUCKET_SIZES = {1, 4, 16, 64, 256, 1000};
+
+    private static final String COLLECTION_IN_CLAUSE = "IN (SELECT column_value FROM TABLE(?))";
+
+    private final DatabaseType databaseType;
+
+    private final String arrayTypeName;
+
+    private int[] bucketSizes = DEFAULT_BUCKET_SIZES.clone();
+
+
+    /**
+     * Create a new OracleInListSupport for the given database.
+     * @param databaseType the type of the database the statements run against
+     * @param arrayTypeName the type name of the SQL collection the values are bound as on Oracle,
+     * may be <code>null</code> for other databases
+     */
+    public OracleInListSupport(DatabaseType databaseType, String arrayTypeName) {
+        Assert.notNull(databaseType, "DatabaseType must not be null");
+        Assert.isTrue(databaseType != DatabaseType.ORACLE || arrayTypeName != null,
+                "The array type name must be set for Oracle");
+        this.databaseType = databaseType;
+        this.arrayTypeName = arrayTypeName;
+    }
+
+
+    /**
+     * Set the placeholder counts the values are padded to when they can't be bound as a collection.
+     * The sizes must be in ascending order. Default is 1, 4, 16, 64, 256 and 1000.
+     * <p>The largest size is the most values accepted for one clause, raise it only for databases
+     * that allow longer lists.
+     */
+    public void setBucketSizes(int... bucketSizes) {
+        Assert.isTrue(bucketSizes != null && bucketSizes.length > 0, "At least one bucket size must be specified");
+        for (int i = 0; i < bucketSizes.length; i++) {
+            Assert.isTrue(bucketSizes[i] > 0 && (i == 0 || bucketSizes[i] > bucketSizes[i - 1]),
+                    "The bucket sizes must be positive and in ascending order");
+        }
+        this.bucketSizes = bucketSizes.clone();
+    }
+
+    public DatabaseType getDatabaseType() {
+        return databaseType;
+    }
+
+    /**
+     * Create the <code>IN</code> clause for the given values.
+     * @param values the values of the list
+     * @return the clause and its parameters
+     */
+    public InClause inClause(Collection<?> values) {
+        Assert.notNull(values, "The values must not be null");
+        return inClause(values.toArray());
+    }
+
+    /**
+     * Create the <code>IN</code> clause for the given values.
+     * @param values the values of the list, or a primitive array of them
+     * @return the clause and its parameters
+     * @throws IllegalArgumentException if the values can't be bound as a collection and there are more
+     * of them than the largest bucket size
+     */
+    public InClause inClause(Object... values) {
+        Assert.notNull(values, "The values must not be null");
+        if (values.length == 1 && values[0] != null && values[0].getClass().isArray() &&
+                values[0].getClass().getComponentType().isPrimitive() && !(values[0] instanceof byte[])) {
+            values = ObjectUtils.toObjectArray(values[0]);
+        }
+        if (databaseType == DatabaseType.ORACLE) {
+            return new InClause(COLLECTION_IN_CLAUSE, new Object[] {
+                    new SqlParameterValue(Types.ARRAY, arrayTypeName, new SqlArrayValue<Object>(values))});
+        }
+        int size = bucketSize(values.length);
+        Object[] parameters = Arrays.copyOf(values, size);
+        if (values.length > 0) {
+            Arrays.fill(parameters, values.length, size, values[values.length - 1]);
+        }
+        StringBuilder sql = new StringBuilder(4 + size * 3).append("IN (?");
+        for (int i = 1; i < size; i++) {
+            sql.append(", ?");
+        }
+        return new InClause(sql.append(")").toString(), parameters);
+    }
+
+    private int bucketSize(int count) {
+        for (int bucketSize : bucketSizes) {
+            if (count <= bucketSize) {
+                return bucketSize;
+            }
+        }
+        throw new IllegalArgumentException("Too many values for an IN list on " + databaseType + ": " + count +
+                ", at most " + bucketSizes[bucketSizes.length - 1] + " are supported");
+    }
+
+
+    /**
+     * An <code>IN</code> clause, starting with the <code>IN</code> keyword, together with the
+     * parameters to bind for its placeholders.
+     */
+    public static class InClause {
+
+        private final String sql;
+
+        private final Object[] parameters;
+
+        InClause(String sql, Object[] parameters) {
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+
+        /**
+         * Return the SQL text of the clause, for example <code>IN (?, ?, ?, ?)</code>.
+         */
+        public String getSql() {
+            return sql;
+        }
+
+        /**
+         * Return the parameters for the placeholders of the clause, in order.
+         */
+        public Object[] getParameters() {
+            return parameters;
+        }
+
+        @Override
+        public String toString() {
+            return sql;
+        }
+    }
+
+}
@@ -23,8 +23,13 @@ import org.w3c.dom.Document;
 import javax.xml.transform.Source;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamSource;
+import java.io.FilterInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.sql.Blob;
+import java.sql.Clob;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -34,12 +39,20 @@ import java.sql.SQLException;
  * implementations for handling storing and retrieving XML documents to and from
  * fields in a database.
  *
+ * <p>The Reader returned by {@link #getXmlAsCharacterStream} reads the XMLType through a
+ * temporary CLOB. With the "thin" driver the InputStreams returned by {@link #getXmlAsBinaryStream}
+ * and held by a <code>StreamSource</code> from {@link #getXmlAsSource} read it as a BLOB in UTF-8. Large
+ * documents can so be parsed incrementally. The LOB and the XMLType are released when the stream
+ * is closed, so callers must close the streams they obtain.
+ *
  * @author Thomas Risberg
  * @since 1.0
  * @see org.springframework.jdbc.support.xml.SqlXmlHandler
  */
 public class OracleXmlHandler implements SqlXmlHandler {
 
+    /** The Oracle character set id of AL32UTF8, the encoding of the binary streams */
+    private static final int AL32UTF8_CHARSET_ID = 873;
 
     public String getXmlAsString(ResultSet rs, String columnName) throws SQLException {
         XMLType oxml = (XMLType)rs.getObject(columnName);
@@ -74,23 +87,89 @@ public class OracleXmlHandler implements SqlXmlHandler {
     }
 
     private InputStream doGetXmlAsBinaryStream(XmlTypeProvider provider, Connection conn) throws SQLException {
+        XMLType oxml = provider.getXmlType();
+        if (oxml == null) {
+            return null;
+        }
         if (XMLType.getConnType(conn) == XMLType.CONNTYPE_THIN) {
-            throw new SqlXmlFeatureNotImplementedException("getXmlAsBinaryStream method is not implemented for the \"thin\" driver");
+            return getLobInputStream(oxml);
         }
-        XMLType oxml = provider.getXmlType();
         InputStream is = oxml.getInputStream();
         oxml.close();
         return is;
     }
 
-    public Reader getXmlAsCharacterStream(ResultSet rs, String columnName) throws SQLException {
-        throw new SqlXmlFeatureNotImplementedException("getXmlAsCharacterStream method is not implemented yet");
+    public Reader getXmlAsCharacterStream(final ResultSet rs, final String columnName) throws SQLException {
+        return doGetXmlAsCharacterStream(
+                new XmlTypeProvider() {
+                    public XMLType getXmlType() throws SQLException {
+                        return (XMLType)rs.getObject(columnName);
+                    }
+                });
     }
 
-    public Reader getXmlAsCharacterStream(ResultSet rs, int columnIndex) throws SQLException {
-        throw new SqlXmlFeatureNotImplementedException("getXmlAsCharacterStream method is not implemented yet");
+    public Reader getXmlAsCharacterStream(final ResultSet rs, final int columnIndex) throws SQLException {
+        return doGetXmlAsCharacterStream(
+                new XmlTypeProvider() {
+                    public XMLType getXmlType() throws SQLException {
+                        return (XMLType)rs.getObject(columnIndex);
+                    }
+                });
     }
 
+    private Reader doGetXmlAsCharacterStream(XmlTypeProvider provider) throws SQLException {
+        XMLType oxml = provider.getXmlType();
+        if (oxml == null) {
+            return null;
+        }
+        Clob clob = null;
+        try {
+            clob = oxml.getClobVal();
+            return new LobReader(clob.getCharacterStream(), clob, oxml);
+        }
+        catch (SQLException ex) {
+            release(clob, oxml);
+            throw ex;
+        }
+    }
+
+    /**
+     * Return a stream reading the XMLType serialized in UTF-8 through a BLOB, which
+     * is supported by the "thin" driver.
+     */
+    private InputStream getLobInputStream(XMLType oxml) throws SQLException {
+        Blob blob = null;
+        try {
+            blob = oxml.getBlobVal(AL32UTF8_CHARSET_ID);
+            return new LobInputStream(blob.getBinaryStream(), blob, oxml);
+        }
+        catch (SQLException ex) {
+            release(blob, oxml);
+            throw ex;
+        }
+    }
+
+    private static void release(Object lob, XMLType oxml) throws SQLException {
+        try {
+            if (lob instanceof Clob) {
+                ((Clob) lob).free();
+            }
+            else if (lob instanceof Blob) {
+                ((Blob) lob).free();
+            }
+        }
+        finally {
+            oxml.close();
+        }
+    }
+
+    /**
+     * Return the XMLType as a <code>DOMSource</code> or a <code>StreamSource</code>, the default
+     * being a <code>DOMSource</code> with the "thin" driver and a <code>StreamSource</code> otherwise.
+     * <p>With the "thin" driver the InputStream of a <code>StreamSource</code> reads a temporary BLOB,
+     * which is only released when the stream is closed. Callers must close it once the source has
+     * been consumed, see {@link #getXmlAsBinaryStream}.
+     */
     @SuppressWarnings("rawtypes")
 	public Source getXmlAsSource(final ResultSet rs, final String columnName, Class sourceClass) throws SQLException {
         return doGetXmlAsSource(
@@ -103,6 +182,11 @@ public class OracleXmlHandler implements SqlXmlHandler {
                 sourceClass);
     }
 
+    /**
+     * Return the XMLType as a <code>DOMSource</code> or a <code>StreamSource</code>. The InputStream
+     * of a <code>StreamSource</code> must be closed by the caller, see
+     * {@link #getXmlAsSource(ResultSet, String, Class)}.
+     */
     @SuppressWarnings("rawtypes")
     public Source getXmlAsSource(final ResultSet rs, final int columnIndex, Class sourceClass) throws SQLException {
         return doGetXmlAsSource(
@@ -128,15 +212,8 @@ public class OracleXmlHandler implements SqlXmlHandler {
             }
         }
         else {
-            if (connType == XMLType.CONNTYPE_THIN) {
-                if (!sourceClass.equals(DOMSource.class)) {
-                    throw new SqlXmlFeatureNotImplementedException("getXmlAsSource method does not support a source class of " + sourceClass.getName());
-                }
-            }
-            else {
-                if (!(sourceClass.equals(DOMSource.class) || sourceClass.equals(StreamSource.class))) {
-                    throw new SqlXmlFeatureNotImplementedException("getXmlAsSource method does not support a source class of " + sourceClass.getName());
-                }
+            if (!(sourceClass.equals(DOMSource.class) || sourceClass.equals(StreamSource.class))) {
+                throw new SqlXmlFeatureNotImplementedException("getXmlAsSource method does not support a source class of " + sourceClass.getName());
             }
             sourceClassToUse = sourceClass;
         }
@@ -155,7 +232,7 @@ public class OracleXmlHandler implements SqlXmlHandler {
             source = new DOMSource(doc);
         }
         else if (sourceClassToUse.equals(StreamSource.class)) {
-            InputStream is = oxml.getInputStream();
+            InputStream is = (connType == XMLType.CONNTYPE_THIN ? getLobInputStream(oxml) : oxml.getInputStream());
             source = new StreamSource(is);
         }
         return source;
@@ -165,17 +242,31 @@ public class OracleXmlHandler implements SqlXmlHandler {
         return new OracleXmlTypeValue(value);
     }
 
+    /**
+     * Create a value letting the provider write the XML, encoded in UTF-8, straight into a
+     * temporary BLOB that is bound as an XMLType.
+     */
     public SqlXmlValue newSqlXmlValue(XmlBinaryStreamProvider provider) {
-        throw new SqlXmlFeatureNotImplementedException("newSqlXmlValue method is not implemented yet");
+        return new XmlProviderBlobValue(provider);
     }
 
+    /**
+     * Create a value letting the provider write the XML straight into a temporary CLOB that
+     * is bound as an XMLType.
+     */
     public SqlXmlValue newSqlXmlValue(XmlCharacterStreamProvider provider) {
-        throw new SqlXmlFeatureNotImplementedException("newSqlXmlValue method is not implemented yet");
+        return new XmlProviderClobValue(provider);
     }
 
+    /**
+     * Create a value letting the provider write the XML to a <code>StreamResult</code> or
+     * <code>SAXResult</code> writing straight into a temporary CLOB that is bound as an XMLType.
+     * A <code>DOMResult</code> is supported as well, it is serialized into the CLOB afterwards.
+     * The default result class is <code>StreamResult</code>.
+     */
     @SuppressWarnings("rawtypes")
 	public SqlXmlValue newSqlXmlValue(Class resultClass, XmlResultProvider xmlResultProvider) {
-        throw new SqlXmlFeatureNotImplementedException("newSqlXmlValue method is not implemented yet");
+        return new XmlProviderClobValue(resultClass, xmlResultProvider);
     }
 
     public SqlXmlValue newSqlXmlValue(Document document) {
@@ -186,4 +277,75 @@ public class OracleXmlHandler implements SqlXmlHandler {
         public abstract XMLType getXmlType() throws SQLException;
     }
 
+    /**
+     * Reader over the character stream of a LOB holding an XMLType, releasing both when closed.
+     */
+    private static class LobReader extends FilterReader {
+
+        private final Object lob;
+
+        private final XMLType xmlType;
+
+        private boolean closed;
+
+        LobReader(Reader in, Object lob, XMLType xmlType) {
+            super(in);
+            this.lob = lob;
+            this.xmlType = xmlType;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                try {
+                    super.close();
+                }
+                finally {
+                    releaseLob(lob, xmlType);
+                }
+            }
+        }
+    }
+
+    /**
+     * InputStream over the binary stream of a LOB holding an XMLType, releasing both when closed.
+     */
+    private static class LobInputStream extends FilterInputStream {
+
+        private final Object lob;
+
+        private final XMLType xmlType;
+
+        private boolean closed;
+
+        LobInputStream(InputStream in, Object lob, XMLType xmlType) {
+            super(in);
+            this.lob = lob;
+            this.xmlType = xmlType;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                try {
+                    super.close();
+                }
+                finally {
+                    releaseLob(lob, xmlType);
+                }
+            }
+        }
+    }
+
+    private static void releaseLob(Object lob, XMLType xmlType) throws IOException {
+        try {
+            release(lob, xmlType);
+        }
+        catch (SQLException ex) {
+            throw new IOException("Could not release the LOB holding the XMLType", ex);
+        }
+    }
+
 }
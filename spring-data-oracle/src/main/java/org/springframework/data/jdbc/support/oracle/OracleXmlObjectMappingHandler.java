@@ -25,7 +25,7 @@ import org.springframework.oxm.UnmarshallingFailureException;
 
 import javax.xml.transform.stream.StreamSource;
 import java.io.IOException;
-import java.io.StringReader;
+import java.io.Reader;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
@@ -61,22 +61,28 @@ public class OracleXmlObjectMappingHandler extends OracleXmlHandler implements S
         this.unmarshaller = unmarshaller;
     }
 
+    /**
+     * Unmarshal the XML of the given column, reading it through the character stream of the
+     * column instead of first copying it into a String.
+     */
     public Object getXmlAsObject(ResultSet rs, String columnName) throws SQLException {
-        String xml = this.getXmlAsString(rs, columnName);
         Object o;
         try {
-            o = doUnmarshall(xml);
+            o = doUnmarshall(this.getXmlAsCharacterStream(rs, columnName));
         } catch (IOException e) {
             throw new UnmarshallingFailureException("Error unmarshalling xml data from '" + columnName + "'  column: ", e);
         }
         return o;
     }
 
+    /**
+     * Unmarshal the XML of the given column, reading it through the character stream of the
+     * column instead of first copying it into a String.
+     */
     public Object getXmlAsObject(ResultSet rs, int columnIndex) throws SQLException {
-        String xml = this.getXmlAsString(rs, columnIndex);
         Object o;
         try {
-            o = doUnmarshall(xml);
+            o = doUnmarshall(this.getXmlAsCharacterStream(rs, columnIndex));
         } catch (IOException e) {
             throw new UnmarshallingFailureException("Error unmarshalling xml data from column " + columnIndex + ": ", e);
         }
@@ -91,11 +97,19 @@ public class OracleXmlObjectMappingHandler extends OracleXmlHandler implements S
     }
 
 
-    private Object doUnmarshall(String xml) throws IOException {
-        if (this.unmarshaller == null) {
-            throw new InvalidDataAccessApiUsageException("Unmarshalling requires that an Unmarshaller is configured");
+    private Object doUnmarshall(Reader xml) throws IOException {
+        if (xml == null) {
+            return null;
+        }
+        try {
+            if (this.unmarshaller == null) {
+                throw new InvalidDataAccessApiUsageException("Unmarshalling requires that an Unmarshaller is configured");
+            }
+            return this.unmarshaller.unmarshal(new StreamSource(xml));
+        }
+        finally {
+            xml.close();
         }
-        return this.unmarshaller.unmarshal(new StreamSource(new StringReader(xml)));
     }
 
 }
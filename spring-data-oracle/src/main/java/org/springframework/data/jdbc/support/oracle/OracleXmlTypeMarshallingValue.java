@@ -16,24 +16,20 @@
 
 package org.springframework.data.jdbc.support.oracle;
 
-import oracle.jdbc.OracleTypes;
-import oracle.xdb.XMLType;
-
-import org.springframework.jdbc.support.xml.SqlXmlValue;
 import org.springframework.oxm.Marshaller;
 import org.springframework.oxm.MarshallingFailureException;
 
 import javax.xml.transform.stream.StreamResult;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
+import java.io.Writer;
 
 /**
  * Implementation of the SqlXmlValue interface, for convenient
  * creation of type values that are provided As an XML Document.
  *
+ * <p>The object is marshalled straight into a temporary CLOB, using one buffer of
+ * {@link #setBufferSize bufferSize} characters, and bound as an XMLType created from it.
+ *
  * <p>A usage example from a StoredProcedure:
  *
  * <pre class="code">proc.declareParameter(new SqlParameter("myXml", OracleTypes.OPAQUE, "SYS.XMLTYPE"));
@@ -49,14 +45,12 @@ import java.sql.SQLException;
  * @see org.springframework.jdbc.support.xml.SqlXmlValue
  * @see org.springframework.jdbc.support.SqlValue
  */
-public class OracleXmlTypeMarshallingValue implements SqlXmlValue {
+public class OracleXmlTypeMarshallingValue extends AbstractClobXmlTypeValue {
 
     private Object value;
 
     private Marshaller marshaller;
 
-    private XMLType xmlValue;
-
     /**
      * Constructor that takes a parameter with the Object value and another with
      * the <code>Marshaller</code> to be used.
@@ -69,39 +63,15 @@ public class OracleXmlTypeMarshallingValue implements SqlXmlValue {
 
 
     /**
-     * The implementation for this specific type. This method is called internally by the
-     * Spring Framework during the out parameter processing and it's not accessed by appplication
-     * code directly.
-     * @see org.springframework.jdbc.support.xml.SqlXmlValue
+     * Marshal the object into the Writer of the temporary CLOB.
      */
-    public void setValue(PreparedStatement ps, int paramIndex) throws SQLException {
-        Connection conn = ps.getConnection();
-        StreamResult result = new StreamResult();
-        ByteArrayOutputStream os = new ByteArrayOutputStream();
-        result.setOutputStream(os);
-        String stringValue = null;
+    @Override
+    protected void writeXml(Writer writer) {
         try {
-            marshaller.marshal(value, result);
-            stringValue = os.toString();
+            marshaller.marshal(value, new StreamResult(writer));
         }
         catch (IOException e) {
-            throw new MarshallingFailureException("Error marshalling xml data from object " + value.getClass().getName() + ": ");
-        }
-        finally {
-            try {
-                os.close();
-            } catch (IOException ignore) {}
-        }
-        xmlValue = new XMLType(conn, stringValue);
-        ps.setObject(paramIndex, xmlValue, OracleTypes.OPAQUE);
-    }
-
-    /**
-     * Close the XMLType
-     */
-    public void cleanup() {
-        if (xmlValue != null) {
-            xmlValue.close();
+            throw new MarshallingFailureException("Error marshalling xml data from object " + value.getClass().getName() + ": ", e);
         }
     }
 
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.CallableStatementCreatorFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlOutParameter;
+import org.springframework.jdbc.core.SqlParameter;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.util.Assert;
+
+/**
+ * Helper for inserting, updating or deleting many rows with a single array bind per chunk of rows
+ * instead of one bind per row as with JDBC batching. The rows are shipped as one
+ * {@link SqlStructArrayValue}, or as one {@link SqlArrayValue} for scalar rows, and the statement
+ * operates on the whole collection.
+ *
+ * <p>The statement has a single placeholder for the array and is either a plain DML statement:
+ *
+ * <pre class="code">
+ * SqlArrayBulkUpdate&lt;Actor&gt; insert = new SqlArrayBulkUpdate&lt;Actor&gt;(dataSource,
+ *     "INSERT INTO actor (id, name) SELECT t.id, t.name FROM TABLE(?) t",
+ *     new BeanPropertyStructMapper&lt;Actor&gt;(Actor.class), "ACTOR_TYPE", "ACTOR_TYPE_TAB");
+ * int[] counts = insert.update(actors);
+ * </pre>
+ *
+ * or an anonymous PL/SQL block, starting with <code>BEGIN</code> or <code>DECLARE</code> after any
+ * leading whitespace and comments, that reports the number of affected rows through a second
+ * placeholder:
+ *
+ * <pre class="code">
+ * DECLARE
+ *   l_actors ACTOR_TYPE_TAB := ?;
+ * BEGIN
+ *   FORALL i IN 1 .. l_actors.COUNT
+ *     UPDATE actor SET name = l_actors(i).name WHERE id = l_actors(i).id;
+ *   ? := SQL%ROWCOUNT;
+ * END;
+ * </pre>
+ *
+ * <p>The rows are split into chunks of {@link #setChunkSize chunkSize} rows, each bound and executed
+ * separately, and the number of affected rows is reported per chunk. All chunks use a connection of
+ * the given DataSource, so run the update in a transaction if the chunks must succeed or fail together.
+ *
+ * @since 2.0
+ * @see SqlStructArrayValue
+ * @see SqlArrayValue
+ */
+public class SqlArrayBulkUpdate<T> {
+
+    /** The default number of rows bound per execution */
+    public static final int DEFAULT_CHUNK_SIZE = 10000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String sql;
+
+    private final StructMapper<T> mapper;
+
+    private final String structTypeName;
+
+    private final String arrayTypeName;
+
+    private final List<SqlParameter> callParameters;
+
+    private final CallableStatementCreatorFactory callableStatementFactory;
+
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+
+    /**
+     * Constructor for rows of scalar values, bound as a {@link SqlArrayValue}.
+     * @param dataSource the DataSource to obtain connections from
+     * @param sql the statement with a placeholder for the array
+     * @param arrayTypeName the type name of the ARRAY
+     */
+    public SqlArrayBulkUpdate(DataSource dataSource, String sql, String arrayTypeName) {
+        this(dataSource, sql, null, null, arrayTypeName);
+    }
+
+    /**
+     * Constructor for rows mapped to STRUCTs, bound as a {@link SqlStructArrayValue}.
+     * @param dataSource the DataSource to obtain connections from
+     * @param sql the statement with a placeholder for the array
+     * @param mapper the mapper to create the STRUCT values
+     * @param structTypeName the type name of the STRUCT
+     * @param arrayTypeName the type name of the ARRAY
+     */
+    public SqlArrayBulkUpdate(DataSource dataSource, String sql, StructMapper<T> mapper, String structTypeName,
+            String arrayTypeName) {
+        Assert.notNull(dataSource, "DataSource must not be null");
+        Assert.hasText(sql, "SQL must not be empty");
+        Assert.hasText(arrayTypeName, "The array type name must not be empty");
+        Assert.isTrue(mapper == null || structTypeName != null, "The struct type name must be set for a StructMapper");
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.sql = sql;
+        this.mapper = mapper;
+        this.structTypeName = structTypeName;
+        this.arrayTypeName = arrayTypeName;
+        if (isAnonymousBlock(sql)) {
+            this.callParameters = Arrays.asList(
+                    new SqlParameter("rows", Types.ARRAY, arrayTypeName),
+                    new SqlOutParameter("count", Types.INTEGER));
+            this.callableStatementFactory = new CallableStatementCreatorFactory(sql, callParameters);
+        }
+        else {
+            this.callParameters = null;
+            this.callableStatementFactory = null;
+        }
+    }
+
+
+    /**
+     * Set the maximum number of rows bound in one execution. Default is 10000.
+     */
+    public void setChunkSize(int chunkSize) {
+        Assert.isTrue(chunkSize > 0, "The chunk size must be greater than 0");
+        this.chunkSize = chunkSize;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+
+    /**
+     * Execute the statement for all rows, one chunk at a time.
+     * @param rows the rows to bind
+     * @return the number of rows affected by each chunk
+     */
+    public int[] update(List<? extends T> rows) {
+        Assert.notNull(rows, "The rows must not be null");
+        int chunks = (rows.size() + chunkSize - 1) / chunkSize;
+        int[] counts = new int[chunks];
+        for (int i = 0; i < chunks; i++) {
+            int from = i * chunkSize;
+            counts[i] = updateChunk(rows.subList(from, Math.min(from + chunkSize, rows.size())));
+        }
+        return counts;
+    }
+
+    /**
+     * Execute the statement once with the given rows bound as one array.
+     * @param chunk the rows to bind
+     * @return the number of affected rows
+     */
+    protected int updateChunk(List<? extends T> chunk) {
+        SqlTypeValue value = createArrayValue(chunk);
+        if (callableStatementFactory != null) {
+            Map<String, Object> out = jdbcTemplate.call(
+                    callableStatementFactory.newCallableStatementCreator(Collections.singletonMap("rows", value)),
+                    callParameters);
+            Number count = (Number) out.get("count");
+            return (count != null ? count.intValue() : 0);
+        }
+        return jdbcTemplate.update(sql, new SqlParameterValue(Types.ARRAY, arrayTypeName, value));
+    }
+
+    /**
+     * Create the array value bound for a chunk of rows.
+     * @param chunk the rows to bind
+     * @return the value to bind
+     */
+    protected SqlTypeValue createArrayValue(List<? extends T> chunk) {
+        if (mapper != null) {
+            return new SqlStructArrayValue<T>(chunk, mapper, structTypeName, arrayTypeName);
+        }
+        return new SqlArrayValue<Object>(chunk.toArray(), arrayTypeName);
+    }
+
+    /**
+     * Return whether the given statement is an anonymous PL/SQL block, i.e. whether its first
+     * keyword after any whitespace and comments is <code>BEGIN</code> or <code>DECLARE</code>.
+     */
+    static boolean isAnonymousBlock(String sql) {
+        int i = 0;
+        while (i < sql.length()) {
+            if (Character.isWhitespace(sql.charAt(i))) {
+                i++;
+            }
+            else if (sql.startsWith("--", i)) {
+                int end = sql.indexOf('\n', i);
+                if (end == -1) {
+                    return false;
+                }
+                i = end + 1;
+            }
+            else if (sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                if (end == -1) {
+                    return false;
+                }
+                i = end + 2;
+            }
+            else {
+                break;
+            }
+        }
+        return startsWithKeyword(sql, i, "BEGIN") || startsWithKeyword(sql, i, "DECLARE");
+    }
+
+    private static boolean startsWithKeyword(String sql, int offset, String keyword) {
+        int end = offset + keyword.length();
+        return sql.regionMatches(true, offset, keyword, 0, keyword.length()) &&
+                (end == sql.length() || !Character.isJavaIdentifierPart(sql.charAt(end)));
+    }
+
+}
@@ -22,8 +22,7 @@ import org.springframework.jdbc.core.support.AbstractSqlTypeValue;
 import java.sql.Connection;
 import java.sql.SQLException;
 
-import oracle.sql.ArrayDescriptor;
-import oracle.sql.ARRAY;
+import oracle.jdbc.OracleConnection;
 
 /**
  * Implementation of the SqlTypeValue interface, for convenient
@@ -41,6 +40,9 @@ import oracle.sql.ARRAY;
  *
  * @author Thomas Risberg
  * @since 1.0
+ * @see SqlLongArrayValue
+ * @see SqlIntArrayValue
+ * @see SqlDoubleArrayValue
  * @see org.springframework.jdbc.core.SqlTypeValue
  * @see org.springframework.jdbc.core.support.AbstractSqlTypeValue
  * @see org.springframework.jdbc.core.simple.SimpleJdbcCall
@@ -87,9 +89,7 @@ public class SqlArrayValue<T> extends AbstractSqlTypeValue {
 			throw new InvalidDataAccessApiUsageException(
 					"The typeName is null in this context. Consider setting the defaultTypeName.");
 		}
-        ArrayDescriptor arrayDescriptor = new ArrayDescriptor(typeName != null ? typeName : defaultTypeName, conn);
-        ARRAY array =
-                new ARRAY(arrayDescriptor, conn, values);
-        return array;
+        OracleConnection oracleConn = (OracleConnection) conn;
+        return oracleConn.createOracleArray(typeName != null ? typeName : defaultTypeName, values);
     }
 }
@@ -34,6 +34,10 @@ import java.sql.SQLException;
  *
  * @author Thomas Risberg
  * @since 1.0
+ * @see SqlReturnLongArray
+ * @see SqlReturnIntArray
+ * @see SqlReturnDoubleArray
+ * @see SqlReturnStreamingArray
  * @see org.springframework.jdbc.core.SqlReturnType
  * @see org.springframework.jdbc.core.simple.SimpleJdbcCall
  * @see org.springframework.jdbc.object.StoredProcedure
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import oracle.jdbc.OracleArray;
+import org.springframework.jdbc.core.SqlReturnType;
+import org.springframework.util.Assert;
+
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+
+/**
+ * Implementation of the SqlReturnType interface, for convenient
+ * access of ARRAYs of numbers returned from stored procedure as a <code>double[]</code>.
+ *
+ * <p>The elements are converted by the driver directly into a primitive array,
+ * avoiding the <code>BigDecimal</code> per element that {@link SqlReturnArray} returns.
+ * Optionally only a slice of the array can be retrieved.
+ * A primitive array can't hold NULL elements, the driver returns them as <code>0.0</code>;
+ * use {@link SqlReturnArray} if NULL elements have to be told apart from zero.
+ *
+ * <p>A usage example from a StoredProcedure:
+ *
+ * <pre class="code">proc.declareParameter(new SqlOutParameter("return", Types.ARRAY, "NUMBERS",
+ *         new SqlReturnDoubleArray()));
+ * </pre>
+ *
+ * @since 2.0
+ * @see SqlReturnArray
+ * @see org.springframework.jdbc.core.SqlReturnType
+ */
+public class SqlReturnDoubleArray implements SqlReturnType {
+
+    private final long index;
+
+    private final int count;
+
+
+    /**
+     * Constructor for retrieving all elements of the array.
+     */
+    public SqlReturnDoubleArray() {
+        this.index = 1;
+        this.count = -1;
+    }
+
+    /**
+     * Constructor for retrieving a slice of the array.
+     * @param index the index of the first element to retrieve, starting at 1
+     * @param count the maximum number of elements to retrieve
+     */
+    public SqlReturnDoubleArray(long index, int count) {
+        Assert.isTrue(index > 0, "Index must be greater than 0");
+        Assert.isTrue(count >= 0, "Count must not be negative");
+        this.index = index;
+        this.count = count;
+    }
+
+
+    /**
+     * The implementation for this specific type.  This method is called internally by the
+     * Spring Framework during the out parameter processing and it's not accessed by application
+     * code directly.
+     */
+    public Object getTypeValue(CallableStatement cs, int i, int sqlType, String typeName)
+                                        throws SQLException {
+        OracleArray array = (OracleArray) cs.getObject(i);
+        if (array == null) {
+            return null;
+        }
+        if (count < 0) {
+            return array.getDoubleArray();
+        }
+        return array.getDoubleArray(index, count);
+    }
+}
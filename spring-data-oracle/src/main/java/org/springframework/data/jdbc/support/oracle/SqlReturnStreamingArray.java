@@ -0,0 +1,167 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import oracle.jdbc.OracleArray;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.SqlReturnType;
+import org.springframework.util.Assert;
+
+import java.sql.Array;
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+import java.sql.Struct;
+
+/**
+ * Implementation of the SqlReturnType interface for very large ARRAYs returned from
+ * stored procedures. Instead of converting the whole collection at once, the ARRAY is read
+ * in windows of a configurable size using <code>getArray(index, count)</code> and each
+ * element is passed to an {@link ArrayElementCallbackHandler}, so only one window of
+ * converted and mapped elements is held in memory at a time. The driver still receives the
+ * image of the whole collection with the OUT parameter, so this bounds the Java objects
+ * created for the elements rather than the memory used by the ARRAY itself. ARRAYs of
+ * STRUCTs can be mapped with a {@link StructMapper} while they are read; NULL elements are
+ * passed to the callback handler as <code>null</code>.
+ *
+ * <p>The value of the OUT parameter is the number of elements processed.
+ *
+ * <p>A usage example from a StoredProcedure:
+ *
+ * <pre class="code">proc.declareParameter(new SqlOutParameter("return", Types.ARRAY, "ACTOR_TYPE_ARRAY",
+ *         new SqlReturnStreamingArray&lt;Actor&gt;(actorMapper, new ArrayElementCallbackHandler&lt;Actor&gt;() {
+ *             public void processElement(Actor actor) {
+ *                 ...
+ *             }
+ *         })));
+ * </pre>
+ *
+ * @since 2.0
+ * @see SqlReturnArray
+ * @see SqlReturnStructArray
+ * @see org.springframework.jdbc.core.SqlReturnType
+ */
+public class SqlReturnStreamingArray<T> implements SqlReturnType {
+
+    /** The default number of elements read from the ARRAY at a time */
+    public static final int DEFAULT_WINDOW_SIZE = 1000;
+
+    /** The object that will do the mapping, if the elements are STRUCTs **/
+    private final StructMapper<T> mapper;
+
+    private final ArrayElementCallbackHandler<T> callbackHandler;
+
+    private int windowSize = DEFAULT_WINDOW_SIZE;
+
+
+    /**
+     * Constructor for passing the elements to the callback handler as returned by the driver.
+     * @param callbackHandler the handler to process the elements
+     */
+    public SqlReturnStreamingArray(ArrayElementCallbackHandler<T> callbackHandler) {
+        this(null, callbackHandler);
+    }
+
+    /**
+     * Constructor for mapping STRUCT elements with the given {@link StructMapper} before
+     * passing them to the callback handler.
+     * @param mapper the mapper, or <code>null</code> to pass the elements as returned by the driver
+     * @param callbackHandler the handler to process the elements
+     */
+    public SqlReturnStreamingArray(StructMapper<T> mapper, ArrayElementCallbackHandler<T> callbackHandler) {
+        Assert.notNull(callbackHandler, "ArrayElementCallbackHandler must not be null");
+        this.mapper = mapper;
+        this.callbackHandler = callbackHandler;
+    }
+
+
+    /**
+     * Set the number of elements read from the ARRAY at a time.
+     * Default is {@link #DEFAULT_WINDOW_SIZE}.
+     */
+    public void setWindowSize(int windowSize) {
+        Assert.isTrue(windowSize > 0, "Window size must be greater than 0");
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Return the number of elements read from the ARRAY at a time.
+     */
+    public int getWindowSize() {
+        return this.windowSize;
+    }
+
+
+    /**
+     * The implementation for this specific type.  This method is called internally by the
+     * Spring Framework during the out parameter processing and it's not accessed by application
+     * code directly.
+     * @return the number of elements processed, or <code>null</code> for a NULL collection
+     */
+    public Object getTypeValue(CallableStatement cs, int i, int sqlType, String typeName)
+                                        throws SQLException {
+        Array array = (Array) cs.getObject(i);
+        if (array == null) {
+            return null;
+        }
+        try {
+            return processElements(array);
+        }
+        finally {
+            array.free();
+        }
+    }
+
+    /**
+     * Read the ARRAY window by window, passing each element to the callback handler.
+     * <p>The length of an Oracle ARRAY is known from its image, so it bounds the windows;
+     * other ARRAYs are read until a window comes back short.
+     * @param array the ARRAY to read
+     * @return the number of elements processed
+     * @throws SQLException
+     */
+    @SuppressWarnings("unchecked")
+    protected int processElements(Array array) throws SQLException {
+        int length = (array instanceof OracleArray ? ((OracleArray) array).length() : -1);
+        int count = 0;
+        long index = 1;
+        while (length < 0 || count < length) {
+            int size = (length < 0 ? windowSize : Math.min(windowSize, length - count));
+            Object[] window = (Object[]) array.getArray(index, size);
+            for (int x = 0; x < window.length; x++) {
+                Object element = window[x];
+                // release the element as soon as it is processed
+                window[x] = null;
+                if (mapper != null && element != null) {
+                    if (!(element instanceof Struct)) {
+                        throw new InvalidDataAccessApiUsageException("Expected STRUCT but got " +
+                                element.getClass().getName());
+                    }
+                    callbackHandler.processElement(mapper.fromStruct((Struct) element));
+                }
+                else {
+                    callbackHandler.processElement((T) element);
+                }
+            }
+            count += window.length;
+            if (window.length < size) {
+                return count;
+            }
+            index += window.length;
+        }
+        return count;
+    }
+}
@@ -52,11 +52,11 @@ public class SqlReturnStruct implements SqlReturnType {
     
     /**
      * Constructor that takes one parameter with the class that the retrieved data should be
-     * mapped into.
+     * mapped into. The mapper for the class is shared through the {@link StructMapperRegistry}.
      * @param targetClass JavaBean class that STRUCT attributes will be mapped into
      */
     public SqlReturnStruct(Class<?> targetClass) {
-        this.mapper = BeanPropertyStructMapper.newInstance(targetClass);
+        this.mapper = StructMapperRegistry.getSharedInstance().getMapper(targetClass);
     }
 
 	/**
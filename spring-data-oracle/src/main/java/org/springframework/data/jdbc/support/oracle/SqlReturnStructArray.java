@@ -18,13 +18,24 @@ package org.springframework.data.jdbc.support.oracle;
 
 import oracle.sql.ARRAY;
 import oracle.sql.STRUCT;
+import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.jdbc.core.SqlReturnType;
+import org.springframework.util.Assert;
 
+import java.lang.reflect.Array;
 import java.sql.CallableStatement;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Struct;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 /**
  * Implementation of the SqlReturnType interface, for convenient
@@ -33,20 +44,43 @@ import java.util.List;
  * <p>A usage example from a StoredProcedure:
  *
  * <pre class="code">proc.declareParameter(new SqlOutParameter("return", Types.ARRAY, "ACTOR_TYPE_ARRAY",
- *         new SqlReturnStructArray(actorMapper)));
+ *         new SqlReturnStructArray&lt;Actor&gt;(actorMapper, Actor.class)));
  * </pre>
  *
+ * <p>The mapped objects are returned as an array of the element type if one is specified,
+ * as an <code>Object[]</code> otherwise.
+ *
+ * <p>Large arrays can be mapped in parallel by setting an {@link #setExecutor Executor}.
+ * The attributes of all STRUCTs are then read on the calling thread, and the mapping of the
+ * detached structs is split into chunks run by the executor. The order of the elements is kept.
+ *
  * @author Thomas Risberg
  * @since 1.0
+ * @see SqlReturnStreamingArray
  * @see org.springframework.jdbc.core.SqlReturnType
  * @see org.springframework.jdbc.core.simple.SimpleJdbcCall
  * @see org.springframework.jdbc.object.StoredProcedure
  */
 public class SqlReturnStructArray<T> implements SqlReturnType {
 
+	/** The default number of elements from which on an executor is used */
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 10000;
+
+	/** The default number of elements mapped by one task of the executor */
+	public static final int DEFAULT_CHUNK_SIZE = 2000;
+
 	/** The object that will do the mapping **/
 	private StructMapper<T> mapper;
 
+	/** The type of the mapped objects, if known **/
+	private Class<T> elementType;
+
+	private Executor executor;
+
+	private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+
 	/**
 	 * Constructor that takes a parameter with the {@link StructMapper} to be used.
 	 * @param mapper the mapper
@@ -55,13 +89,64 @@ public class SqlReturnStructArray<T> implements SqlReturnType {
 		this.mapper = mapper;
 	}
 
+	/**
+	 * Constructor that takes a parameter with the {@link StructMapper} to be used and the
+	 * type of the mapped objects, returning a <code>T[]</code> instead of an <code>Object[]</code>.
+	 * @param mapper the mapper
+	 * @param elementType the type of the mapped objects
+	 */
+	public SqlReturnStructArray(StructMapper<T> mapper, Class<T> elementType) {
+		this.mapper = mapper;
+		this.elementType = elementType;
+	}
+
+	/**
+	 * Constructor that takes a parameter with the JavaBean class the STRUCT attributes are mapped
+	 * into, returning a <code>T[]</code>. The mapper for the class is shared through the
+	 * {@link StructMapperRegistry}.
+	 * @param elementType the type of the mapped objects
+	 */
+	public SqlReturnStructArray(Class<T> elementType) {
+		this(StructMapperRegistry.getSharedInstance().getMapper(elementType), elementType);
+	}
+
+
+	/**
+	 * Set the {@link Executor} used to map large arrays in parallel, for example a
+	 * {@link java.util.concurrent.ForkJoinPool}. Default is none.
+	 * <p>The mapper is then called concurrently with detached structs, so it must be
+	 * thread-safe and must not depend on the driver STRUCT class; {@link BeanPropertyStructMapper}
+	 * supports this. Nested STRUCT attributes are detached as well, and the elements of nested
+	 * ARRAY attributes are read on the calling thread; other attribute values are passed on as
+	 * read by the driver.
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Set the number of elements from which on the executor is used.
+	 * Default is {@link #DEFAULT_PARALLEL_THRESHOLD}.
+	 */
+	public void setParallelThreshold(int parallelThreshold) {
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	/**
+	 * Set the number of elements mapped by one task of the executor.
+	 * Default is {@link #DEFAULT_CHUNK_SIZE}.
+	 */
+	public void setChunkSize(int chunkSize) {
+		Assert.isTrue(chunkSize > 0, "Chunk size must be greater than 0");
+		this.chunkSize = chunkSize;
+	}
+
 
 	/**
      * The implementation for this specific type.  This method is called internally by the
      * Spring Framework during the out parameter processing and it's not accessed by application
      * code directly.
      */
-	@SuppressWarnings("unchecked")
     public Object getTypeValue(CallableStatement cs, int i, int sqlType, String typeName)
                                         throws SQLException {
         ARRAY array = (ARRAY) cs.getObject(i);
@@ -69,21 +154,91 @@ public class SqlReturnStructArray<T> implements SqlReturnType {
             return null;
         }
         Object[] structValues = (Object[]) array.getArray();
-		List<T> values = new ArrayList<T>();
-		for (int x = 0; x < structValues.length; x++) {
-			Object struct = structValues[x];
-			if (struct != null && struct instanceof STRUCT) {
-				values.add(mapper.fromStruct((STRUCT) struct));
+		Object[] values = (elementType != null ?
+				(Object[]) Array.newInstance(elementType, structValues.length) : new Object[structValues.length]);
+		if (executor != null && structValues.length >= parallelThreshold) {
+			mapInParallel(structValues, values);
+		}
+		else {
+			for (int x = 0; x < structValues.length; x++) {
+				values[x] = mapper.fromStruct(asStruct(structValues[x]));
+			}
+		}
+        return values;
+    }
+
+	private Struct asStruct(Object struct) {
+		if (struct != null && struct instanceof STRUCT) {
+			return (STRUCT) struct;
+		}
+		else {
+			if (struct == null) {
+				throw new InvalidDataAccessApiUsageException("Expected STRUCT but got 'null'");
 			}
 			else {
-				if (struct == null) {
-					throw new InvalidDataAccessApiUsageException("Expected STRUCT but got 'null'");
-				}
-				else {
-					throw new InvalidDataAccessApiUsageException("Expected STRUCT but got " + struct.getClass().getName());
-				}
+				throw new InvalidDataAccessApiUsageException("Expected STRUCT but got " + struct.getClass().getName());
 			}
 		}
-        return values.toArray();
-    }
+	}
+
+	/**
+	 * Detach all structs on the calling thread, then map them in chunks on the executor,
+	 * each chunk writing to its own range of the result array.
+	 */
+	private void mapInParallel(Object[] structValues, final Object[] values) throws SQLException {
+		final Struct[] detached = new Struct[structValues.length];
+		Map<String, ResultSetMetaData> metaDataCache = new HashMap<String, ResultSetMetaData>();
+		for (int x = 0; x < structValues.length; x++) {
+			detached[x] = DetachedStruct.detach(asStruct(structValues[x]), metaDataCache);
+			structValues[x] = null;
+		}
+		List<FutureTask<Void>> tasks = new ArrayList<FutureTask<Void>>();
+		try {
+			for (int start = 0; start < detached.length; start += chunkSize) {
+				final int from = start;
+				final int to = Math.min(start + chunkSize, detached.length);
+				FutureTask<Void> task = new FutureTask<Void>(new Callable<Void>() {
+					public Void call() throws SQLException {
+						for (int x = from; x < to; x++) {
+							values[x] = mapper.fromStruct(detached[x]);
+						}
+						return null;
+					}
+				});
+				executor.execute(task);
+				tasks.add(task);
+			}
+			for (FutureTask<Void> task : tasks) {
+				await(task);
+			}
+		}
+		finally {
+			for (FutureTask<Void> task : tasks) {
+				task.cancel(true);
+			}
+		}
+	}
+
+	private void await(FutureTask<Void> task) throws SQLException {
+		try {
+			task.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new DataRetrievalFailureException("Interrupted while waiting for STRUCTs to be mapped", ex);
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof SQLException) {
+				throw (SQLException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new DataRetrievalFailureException("Failed to map STRUCTs", cause);
+		}
+	}
 }
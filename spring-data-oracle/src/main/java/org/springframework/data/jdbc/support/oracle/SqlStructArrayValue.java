@@ -24,6 +24,9 @@ import oracle.jdbc.driver.OracleConnection;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Struct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 
 /**
  * Implementation of the SqlTypeValue interface, for convenient
@@ -39,6 +42,11 @@ import java.sql.Struct;
  * Map out = proc.execute(in);
  * </pre>
  *
+ * <p>The values can also be passed as a Collection, such as a List, without copying them into an
+ * array first. Other <code>Iterable</code>s, which may only be iterable once, are copied into a List
+ * when the value is created, so that it can be bound more than once. When the mapper is a
+ * {@link BatchStructMapper} all STRUCTs are created with one call, resolving the STRUCT type only once.
+ *
  * @author Thomas Risberg
  * @author Marc Teufel
  * @since 1.0
@@ -49,7 +57,7 @@ import java.sql.Struct;
  */
 public class SqlStructArrayValue<T> extends AbstractSqlTypeValue {
 
-    private T[] values;
+    private Collection<? extends T> values;
 
 	/** The object that will do the mapping **/
 	private StructMapper<T> mapper;
@@ -69,7 +77,19 @@ public class SqlStructArrayValue<T> extends AbstractSqlTypeValue {
      * @param structTypeName the type name of the STRUCT.
      */
     public SqlStructArrayValue(T[] values, StructMapper<T> mapper, String structTypeName) {
-        this.values = values;
+        this(Arrays.asList(values), mapper, structTypeName);
+    }
+
+    /**
+     * Constructor that takes a parameter with the values passed in to the statement, a
+     * parameter with the {@link StructMapper} to be used plus the type name of the STRUCT
+     * that the array will contain. Values that are not a Collection are copied into a List.
+     * @param values the values, for example a List
+     * @param mapper the mapper to create the STRUCT values
+     * @param structTypeName the type name of the STRUCT.
+     */
+    public SqlStructArrayValue(Iterable<? extends T> values, StructMapper<T> mapper, String structTypeName) {
+        this.values = asCollection(values);
 		this.mapper = mapper;
 		this.structTypeName = structTypeName;
     }
@@ -85,12 +105,38 @@ public class SqlStructArrayValue<T> extends AbstractSqlTypeValue {
 	 * name of the array type is not known.
      */
     public SqlStructArrayValue(T[] values, StructMapper<T> mapper, String structTypeName, String arrayTypeName) {
-        this.values = values;
+        this(Arrays.asList(values), mapper, structTypeName, arrayTypeName);
+    }
+
+    /**
+     * Constructor that takes a parameter with the values passed in to the statement, a
+     * parameter with the {@link StructMapper} to be used plus the type names of the STRUCT
+     * and of the ARRAY. Values that are not a Collection are copied into a List.
+     * @param values the values, for example a List
+     * @param mapper the mapper to create the STRUCT values
+     * @param structTypeName the type name of the STRUCT.
+     * @param arrayTypeName the type name of the ARRAY when this class is used in a context where the
+	 * name of the array type is not known.
+     */
+    public SqlStructArrayValue(Iterable<? extends T> values, StructMapper<T> mapper, String structTypeName,
+            String arrayTypeName) {
+        this.values = asCollection(values);
 		this.mapper = mapper;
 		this.structTypeName = structTypeName;
 		this.arrayTypeName = arrayTypeName;
     }
 
+    private static <T> Collection<? extends T> asCollection(Iterable<? extends T> values) {
+        if (values instanceof Collection) {
+            return (Collection<? extends T>) values;
+        }
+        Collection<T> copy = new ArrayList<T>();
+        for (T value : values) {
+            copy.add(value);
+        }
+        return copy;
+    }
+
 
     /**
      * The implementation for this specific type. This method is called internally by the
@@ -104,9 +150,16 @@ public class SqlStructArrayValue<T> extends AbstractSqlTypeValue {
 			throw new InvalidDataAccessApiUsageException(
 					"The typeName for the array is null in this context. Consider setting the arrayTypeName.");
 		}
-		Struct[] structValues = new Struct[values.length];
-		for (int i = 0; i < values.length; i++) {
-			structValues[i] = mapper.toStruct(values[i], conn, structTypeName);
+		Struct[] structValues;
+		if (mapper instanceof BatchStructMapper) {
+			structValues = ((BatchStructMapper<T>) mapper).toStructs(values, conn, structTypeName);
+		}
+		else {
+			structValues = new Struct[values.size()];
+			int i = 0;
+			for (T value : values) {
+				structValues[i++] = mapper.toStruct(value, conn, structTypeName);
+			}
 		}
 		OracleConnection oracleConn = (OracleConnection) conn;
 		return oracleConn.createOracleArray(typeName != null ? typeName : arrayTypeName, structValues);
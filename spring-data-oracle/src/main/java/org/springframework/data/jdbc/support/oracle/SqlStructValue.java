@@ -61,13 +61,14 @@ public class SqlStructValue<T> extends AbstractSqlTypeValue {
 
 	/**
 	 * Constructor that takes one parameter with the Object value passed in to the stored
-	 * procedure.
+	 * procedure. The mapper for the class of the Object is shared through the
+	 * {@link StructMapperRegistry}.
 	 *
 	 * @param source the Object containing the values to be mapped to the STRUCT.
 	 */
 	public SqlStructValue(T source) {
 		this.source = source;
-		this.mapper = new BeanPropertyStructMapper(source.getClass());
+		this.mapper = StructMapperRegistry.getSharedInstance().getMapper(source.getClass());
 	}
 
 	/**
@@ -80,6 +81,7 @@ public class SqlStructValue<T> extends AbstractSqlTypeValue {
 	 */
 	public SqlStructValue(T source, String defaultTypeName) {
 		this.source = source;
+		this.mapper = StructMapperRegistry.getSharedInstance().getMapper(source.getClass());
 		this.defaultTypeName = defaultTypeName;
 	}
 
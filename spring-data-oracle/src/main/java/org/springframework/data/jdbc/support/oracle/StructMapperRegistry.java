@@ -0,0 +1,119 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Registry of the {@link StructMapper}s used for JavaBean classes, creating one
+ * {@link BeanPropertyStructMapper} per class the first time it's requested. The introspection
+ * of the class and the attribute mappings compiled by the mapper are then shared by all users
+ * of the class instead of being repeated for each parameter declaration.
+ *
+ * <p>The shared instance is used by {@link SqlReturnStruct}, {@link SqlStructValue},
+ * {@link SqlReturnStructArray} and the <code>StructDatumMapper</code> when they are given a class
+ * rather than a mapper. Classes can be introspected at startup using {@link #warmUp}.
+ *
+ * <p>The mappers are shared across threads, so the configuration of a {@link BeanPropertyStructMapper}
+ * is frozen when it's created; reconfiguring it, for example with
+ * {@link BeanPropertyStructMapper#setFastPropertyAccess}, throws an IllegalStateException. Pass a
+ * separately created mapper where a different configuration is needed.
+ *
+ * <p>The mappers are only softly referenced, so the registry doesn't keep the mapped classes from
+ * being unloaded. A mapper released under memory pressure is created again when next requested.
+ *
+ * @since 2.0
+ */
+public class StructMapperRegistry {
+
+    private static final StructMapperRegistry sharedInstance = new StructMapperRegistry();
+
+    private final ConcurrentMap<Class<?>, StructMapper<?>> mappers =
+            new ConcurrentReferenceHashMap<Class<?>, StructMapper<?>>();
+
+
+    /**
+     * Return the registry shared by all users in this class loader.
+     */
+    public static StructMapperRegistry getSharedInstance() {
+        return sharedInstance;
+    }
+
+
+    /**
+     * Return the mapper for the given class, creating it on first use. The configuration of a
+     * {@link BeanPropertyStructMapper} returned by {@link #createMapper} is frozen.
+     * @param mappedClass the JavaBean class STRUCT attributes are mapped to and from
+     * @return the mapper for the class
+     */
+    @SuppressWarnings("unchecked")
+    public <T> StructMapper<T> getMapper(Class<T> mappedClass) {
+        Assert.notNull(mappedClass, "The mapped class must not be null");
+        StructMapper<?> mapper = this.mappers.get(mappedClass);
+        if (mapper == null) {
+            mapper = createMapper(mappedClass);
+            if (mapper instanceof BeanPropertyStructMapper) {
+                ((BeanPropertyStructMapper<?>) mapper).freezeConfiguration();
+            }
+            StructMapper<?> existing = this.mappers.putIfAbsent(mappedClass, mapper);
+            if (existing != null) {
+                mapper = existing;
+            }
+        }
+        return (StructMapper<T>) mapper;
+    }
+
+    /**
+     * Create the mappers for the given classes up front, for example during application startup.
+     * @param mappedClasses the JavaBean classes to create the mappers for
+     */
+    public void warmUp(Class<?>... mappedClasses) {
+        for (Class<?> mappedClass : mappedClasses) {
+            getMapper(mappedClass);
+        }
+    }
+
+    /**
+     * Remove the mapper for the given class, for example when the class is being unloaded.
+     * @param mappedClass the mapped class
+     */
+    public void remove(Class<?> mappedClass) {
+        this.mappers.remove(mappedClass);
+    }
+
+    /**
+     * Remove all mappers. They are created again when next requested.
+     */
+    public void clear() {
+        this.mappers.clear();
+    }
+
+    /**
+     * Create the mapper for the given class. A {@link BeanPropertyStructMapper} can be configured
+     * here before its configuration is frozen.
+     * <p>The default implementation creates a {@link BeanPropertyStructMapper}.
+     * @param mappedClass the mapped class
+     * @return the new mapper
+     */
+    protected <T> StructMapper<T> createMapper(Class<T> mappedClass) {
+        return BeanPropertyStructMapper.newInstance(mappedClass);
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import org.springframework.jdbc.support.xml.XmlBinaryStreamProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * SqlXmlValue letting a binary stream provider callback of the SqlXmlHandler interface write
+ * the XML, encoded in UTF-8, straight into a temporary BLOB.
+ *
+ * @since 2.0
+ * @see XmlProviderClobValue
+ * @see OracleXmlHandler#newSqlXmlValue(XmlBinaryStreamProvider)
+ */
+class XmlProviderBlobValue extends AbstractBlobXmlTypeValue {
+
+    private final XmlBinaryStreamProvider provider;
+
+
+    XmlProviderBlobValue(XmlBinaryStreamProvider provider) {
+        this.provider = provider;
+    }
+
+
+    @Override
+    protected void writeXml(OutputStream os) throws IOException {
+        provider.provideXml(os);
+    }
+
+}
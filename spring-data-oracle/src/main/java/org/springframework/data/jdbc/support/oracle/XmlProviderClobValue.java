@@ -0,0 +1,100 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import org.springframework.jdbc.support.xml.SqlXmlFeatureNotImplementedException;
+import org.springframework.jdbc.support.xml.XmlCharacterStreamProvider;
+import org.springframework.jdbc.support.xml.XmlResultProvider;
+
+import javax.xml.transform.Result;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.SAXResult;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
+import javax.xml.transform.stream.StreamResult;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * SqlXmlValue letting a character stream or result provider callback of the SqlXmlHandler
+ * interface write the XML straight into a temporary CLOB.
+ *
+ * @since 2.0
+ * @see XmlProviderBlobValue
+ * @see OracleXmlHandler#newSqlXmlValue(XmlCharacterStreamProvider)
+ * @see OracleXmlHandler#newSqlXmlValue(Class, XmlResultProvider)
+ */
+class XmlProviderClobValue extends AbstractClobXmlTypeValue {
+
+    private final XmlCharacterStreamProvider characterStreamProvider;
+
+    private final XmlResultProvider resultProvider;
+
+    private final Class<?> resultClass;
+
+
+    XmlProviderClobValue(XmlCharacterStreamProvider provider) {
+        this.characterStreamProvider = provider;
+        this.resultProvider = null;
+        this.resultClass = null;
+    }
+
+    XmlProviderClobValue(Class<?> resultClass, XmlResultProvider provider) {
+        Class<?> resultClassToUse = (resultClass != null ? resultClass : StreamResult.class);
+        if (!(resultClassToUse.equals(StreamResult.class) || resultClassToUse.equals(SAXResult.class) ||
+                resultClassToUse.equals(DOMResult.class))) {
+            throw new SqlXmlFeatureNotImplementedException("newSqlXmlValue method does not support a result class of " +
+                    resultClassToUse.getName());
+        }
+        this.characterStreamProvider = null;
+        this.resultProvider = provider;
+        this.resultClass = resultClassToUse;
+    }
+
+
+    @Override
+    protected void writeXml(Writer writer) throws IOException {
+        if (characterStreamProvider != null) {
+            characterStreamProvider.provideXml(writer);
+            return;
+        }
+        try {
+            if (resultClass.equals(StreamResult.class)) {
+                resultProvider.provideXml(new StreamResult(writer));
+            }
+            else if (resultClass.equals(SAXResult.class)) {
+                TransformerHandler handler =
+                        ((SAXTransformerFactory) TransformerFactory.newInstance()).newTransformerHandler();
+                handler.setResult(new StreamResult(writer));
+                resultProvider.provideXml(new SAXResult(handler));
+            }
+            else {
+                DOMResult result = new DOMResult();
+                resultProvider.provideXml(result);
+                TransformerFactory.newInstance().newTransformer().transform(
+                        new DOMSource(result.getNode()), new StreamResult(writer));
+            }
+        }
+        catch (TransformerException ex) {
+            throw new IOException("Could not write the XML provided as " + resultClass.getName(), ex);
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import junit.framework.TestCase;
+
+public class AbstractLobXmlTypeValueTests extends TestCase {
+
+    private static final String XML = "<doc/>";
+
+    public void testFailureToCloseTheClobWriterIsReported() throws Exception {
+        final IOException failure = new IOException("close failed");
+        StringWriter clobWriter = new StringWriter() {
+            @Override
+            public void close() throws IOException {
+                throw failure;
+            }
+        };
+        Clob clob = createMock(Clob.class);
+        expect(clob.setCharacterStream(1)).andReturn(clobWriter);
+        clob.free();
+        Connection conn = createMock(Connection.class);
+        expect(conn.createClob()).andReturn(clob);
+        PreparedStatement ps = createMock(PreparedStatement.class);
+        expect(ps.getConnection()).andReturn(conn);
+        replay(clob, conn, ps);
+
+        AbstractLobXmlTypeValue value = new AbstractClobXmlTypeValue() {
+            @Override
+            protected void writeXml(Writer writer) throws IOException {
+                writer.write(XML);
+            }
+        };
+        try {
+            value.setValue(ps, 1);
+            fail("SQLException expected");
+        }
+        catch (SQLException ex) {
+            assertSame(failure, ex.getCause());
+        }
+        assertEquals(XML, clobWriter.toString());
+        value.cleanup();
+        verify(clob, conn, ps);
+    }
+
+    public void testFailureToCloseTheBlobStreamIsReported() throws Exception {
+        final IOException failure = new IOException("close failed");
+        ByteArrayOutputStream blobStream = new ByteArrayOutputStream() {
+            @Override
+            public void close() throws IOException {
+                throw failure;
+            }
+        };
+        Blob blob = createMock(Blob.class);
+        expect(blob.setBinaryStream(1)).andReturn(blobStream);
+        blob.free();
+        Connection conn = createMock(Connection.class);
+        expect(conn.createBlob()).andReturn(blob);
+        PreparedStatement ps = createMock(PreparedStatement.class);
+        expect(ps.getConnection()).andReturn(conn);
+        replay(blob, conn, ps);
+
+        AbstractLobXmlTypeValue value = new AbstractBlobXmlTypeValue() {
+            @Override
+            protected void writeXml(OutputStream os) throws IOException {
+                os.write(XML.getBytes("UTF-8"));
+            }
+        };
+        try {
+            value.setValue(ps, 1);
+            fail("SQLException expected");
+        }
+        catch (SQLException ex) {
+            assertSame(failure, ex.getCause());
+        }
+        assertEquals(XML, blobStream.toString("UTF-8"));
+        value.cleanup();
+        verify(blob, conn, ps);
+    }
+
+}
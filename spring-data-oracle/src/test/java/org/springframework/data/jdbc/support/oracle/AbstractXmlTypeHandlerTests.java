@@ -0,0 +1,252 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.xml.transform.sax.SAXSource;
+import javax.xml.transform.stream.StreamSource;
+
+import junit.framework.TestCase;
+
+import oracle.jdbc.internal.OracleConnection;
+import oracle.sql.BLOB;
+import oracle.sql.CLOB;
+import oracle.sql.OpaqueDescriptor;
+import oracle.xdb.XMLType;
+
+import org.mockito.Mockito;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.xml.sax.InputSource;
+
+public class AbstractXmlTypeHandlerTests extends TestCase {
+
+    private static final String XML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><doc/>";
+
+    /** Longer than the prolog inspected before the LOB is created, so reading fails while copying */
+    private static final String LONG_XML = XML + "<!--" + new String(new char[300]).replace('\0', 'x') + "-->";
+
+    private final IOException failure = new IOException("read failed");
+
+    private final AbstractXmlTypeHandler handler = new AbstractXmlTypeHandler() {
+        @Override
+        protected Object extractXmlContent(XMLType data) throws SQLException {
+            return null;
+        }
+    };
+
+    public void testReaderIsCopiedIntoAClobThatIsNotFreed() throws Exception {
+        StringWriter clobWriter = new StringWriter();
+        CLOB clob = mock(CLOB.class);
+        when(clob.setCharacterStream(1)).thenReturn(clobWriter);
+        OracleConnection conn = thinConnection();
+        when(conn.createClob()).thenReturn(clob);
+
+        XMLType xml = handler.createXmlType(new StringReader(XML), conn);
+        assertNotNull(xml);
+        assertEquals(XML, clobWriter.toString());
+        Mockito.verify(clob, never()).free();
+    }
+
+    public void testStreamIsCopiedIntoABlobThatIsNotFreed() throws Exception {
+        ByteArrayOutputStream blobStream = new ByteArrayOutputStream();
+        XMLType created = mock(XMLType.class);
+        BLOB blob = mock(BLOB.class);
+        when(blob.setBinaryStream(1)).thenReturn(blobStream);
+        when(blob.toSQLXML(873)).thenReturn(created);
+        OracleConnection conn = thinConnection();
+        when(conn.createBlob()).thenReturn(blob);
+
+        assertSame(created, handler.createXmlType(XML.getBytes("UTF-8"), conn));
+        assertEquals(XML, blobStream.toString("UTF-8"));
+        Mockito.verify(blob, never()).free();
+    }
+
+    public void testStreamIsCopiedAndBlobFreedOnFailure() throws Exception {
+        ByteArrayOutputStream blobStream = new ByteArrayOutputStream();
+        Blob blob = blob(blobStream);
+        Connection conn = createMock(Connection.class);
+        expect(conn.createBlob()).andReturn(blob);
+        replay(blob, conn);
+
+        handler.setBufferSize(4);
+        assertCreationFails(new SequenceInputStream(new ByteArrayInputStream(LONG_XML.getBytes("UTF-8")),
+                failingStream()), conn);
+        assertEquals(LONG_XML, blobStream.toString("UTF-8"));
+        verify(blob, conn);
+    }
+
+    public void testStreamSourceIsCopiedAndBlobFreedOnFailure() throws Exception {
+        ByteArrayOutputStream blobStream = new ByteArrayOutputStream();
+        Blob blob = blob(blobStream);
+        Connection conn = createMock(Connection.class);
+        expect(conn.createBlob()).andReturn(blob);
+        replay(blob, conn);
+
+        assertCreationFails(new StreamSource(new SequenceInputStream(
+                new ByteArrayInputStream(LONG_XML.getBytes("UTF-8")), failingStream())), conn);
+        assertEquals(LONG_XML, blobStream.toString("UTF-8"));
+        verify(blob, conn);
+    }
+
+    public void testReaderIsCopiedAndClobFreedOnFailure() throws Exception {
+        StringWriter clobWriter = new StringWriter();
+        Clob clob = clob(clobWriter);
+        Connection conn = createMock(Connection.class);
+        expect(conn.createClob()).andReturn(clob);
+        replay(clob, conn);
+
+        Reader reader = new StringReader(XML) {
+            private boolean read;
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                if (read) {
+                    throw failure;
+                }
+                read = true;
+                return super.read(buffer, offset, length);
+            }
+        };
+        assertCreationFails(reader, conn);
+        assertEquals(XML, clobWriter.toString());
+        verify(clob, conn);
+    }
+
+    public void testClobIsFreedWhenTransformingTheSourceFails() throws Exception {
+        Clob clob = clob(new StringWriter());
+        Connection conn = createMock(Connection.class);
+        expect(conn.createClob()).andReturn(clob);
+        replay(clob, conn);
+
+        try {
+            handler.createXmlType(new SAXSource(new InputSource(new StringReader("<doc>"))), conn);
+            fail("DataRetrievalFailureException expected");
+        }
+        catch (DataRetrievalFailureException ex) {
+            // expected
+        }
+        verify(clob, conn);
+    }
+
+    public void testUtf16InputIsRejected() throws Exception {
+        Connection conn = createMock(Connection.class);
+        replay(conn);
+
+        assertRejected("\uFEFF<doc/>".getBytes("UTF-16BE"), conn);
+        assertRejected("\uFEFF<doc/>".getBytes("UTF-16LE"), conn);
+        assertRejected("<doc/>".getBytes("UTF-16BE"), conn);
+        verify(conn);
+    }
+
+    public void testDeclaredEncodingOtherThanUtf8IsRejected() throws Exception {
+        Connection conn = createMock(Connection.class);
+        replay(conn);
+
+        assertRejected("<?xml version=\"1.0\" encoding='ISO-8859-1'?><doc>\u00e9</doc>".getBytes("ISO-8859-1"), conn);
+        verify(conn);
+    }
+
+    public void testUnsupportedTypeIsRejected() throws Exception {
+        Connection conn = createMock(Connection.class);
+        replay(conn);
+
+        try {
+            handler.createXmlType(Integer.valueOf(1), conn);
+            fail("IllegalArgumentException expected");
+        }
+        catch (IllegalArgumentException ex) {
+            // expected
+        }
+        verify(conn);
+    }
+
+
+    private void assertCreationFails(Object input, Connection conn) {
+        try {
+            handler.createXmlType(input, conn);
+            fail("DataRetrievalFailureException expected");
+        }
+        catch (DataRetrievalFailureException ex) {
+            assertSame(failure, ex.getCause());
+        }
+    }
+
+    private void assertRejected(byte[] input, Connection conn) {
+        try {
+            handler.createXmlType(input, conn);
+            fail("IllegalArgumentException expected");
+        }
+        catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    /**
+     * A "thin" connection the driver creates an XMLType from a LOB with, without a database.
+     */
+    private static OracleConnection thinConnection() throws SQLException {
+        OracleConnection conn = mock(OracleConnection.class);
+        when(conn.physicalConnectionWithin()).thenReturn(conn);
+        when(conn.getProtocolType()).thenReturn("thin");
+        when(conn.getDescriptor("SYS.XMLTYPE")).thenReturn(mock(OpaqueDescriptor.class));
+        return conn;
+    }
+
+    private InputStream failingStream() {
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw failure;
+            }
+        };
+    }
+
+    private static Blob blob(ByteArrayOutputStream content) throws SQLException {
+        Blob blob = createMock(Blob.class);
+        expect(blob.setBinaryStream(1)).andReturn(content);
+        blob.free();
+        return blob;
+    }
+
+    private static Clob clob(StringWriter content) throws SQLException {
+        Clob clob = createMock(Clob.class);
+        expect(clob.setCharacterStream(1)).andReturn(content);
+        clob.free();
+        return clob;
+    }
+
+}
@@ -0,0 +1,458 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import static org.easymock.EasyMock.aryEq;
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.notNull;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Struct;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.rowset.RowSetMetaDataImpl;
+
+import junit.framework.TestCase;
+
+import oracle.jdbc.OracleConnection;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.TypeMismatchException;
+
+public class BeanPropertyStructMapperTests extends TestCase {
+
+    private static final Timestamp BIRTH_DATE = new Timestamp(0);
+
+    public void testMetadataIsLookedUpOncePerType() throws Exception {
+        CountingStructMapper<Actor> mapper = new CountingStructMapper<Actor>(Actor.class);
+        mapper.fromStruct(actorStruct("ACTOR"));
+        mapper.fromStruct(actorStruct("ACTOR"));
+        assertEquals(1, mapper.lookups);
+        mapper.fromStruct(actorStruct("SCOTT.ACTOR"));
+        assertEquals(2, mapper.lookups);
+        mapper.fromStruct(actorStruct("ACTOR"));
+        mapper.fromStruct(actorStruct("SCOTT.ACTOR"));
+        assertEquals(2, mapper.lookups);
+    }
+
+    public void testToStructUsesTheCachedMetadataOfTheQualifiedType() throws Exception {
+        Struct struct = actorStruct("SCOTT.ACTOR");
+        Connection conn = createMock(Connection.class);
+        expect(conn.createStruct(eq("ACTOR"), aryEq(new Object[] {1L, "Bogart", 57, BIRTH_DATE})))
+                .andReturn(struct);
+        expect(conn.createStruct(eq("SCOTT.ACTOR"), aryEq(new Object[] {1L, "Bogart", 57, BIRTH_DATE})))
+                .andReturn(struct);
+        replay(conn);
+
+        CountingStructMapper<Actor> mapper = new CountingStructMapper<Actor>(Actor.class);
+        mapper.currentSchemas.put(conn, "SCOTT");
+        Actor actor = mapper.fromStruct(struct);
+        assertSame(struct, mapper.toStruct(actor, conn, "ACTOR"));
+        assertSame(struct, mapper.toStruct(actor, conn, "SCOTT.ACTOR"));
+        assertEquals(1, mapper.lookups);
+        verify(conn);
+    }
+
+    public void testTypesOfDifferentSchemasAreCachedSeparately() throws Exception {
+        Actor actor = new Actor();
+        Connection scott = createMock(Connection.class);
+        expect(scott.createStruct(eq("ACTOR"), (Object[]) notNull())).andReturn(null).times(2);
+        Connection hr = createMock(Connection.class);
+        expect(hr.createStruct(eq("ACTOR"), (Object[]) notNull())).andReturn(null);
+        replay(scott, hr);
+
+        CountingStructMapper<Actor> mapper = new CountingStructMapper<Actor>(Actor.class);
+        mapper.currentSchemas.put(scott, "SCOTT");
+        mapper.currentSchemas.put(hr, "HR");
+        mapper.toStruct(actor, scott, "ACTOR");
+        mapper.toStruct(actor, hr, "ACTOR");
+        mapper.toStruct(actor, scott, "ACTOR");
+        assertEquals(2, mapper.lookups);
+        mapper.invalidateMetadata("ACTOR");
+        mapper.fromStruct(actorStruct("HR.ACTOR"));
+        assertEquals(3, mapper.lookups);
+        verify(scott, hr);
+    }
+
+    public void testTypeNameIsPassedToTheMetadataLookupAsGiven() throws Exception {
+        Connection conn = createMock(Connection.class);
+        expect(conn.createStruct(eq("ACTOR_SYNONYM"), (Object[]) notNull())).andReturn(null);
+        expect(conn.createStruct(eq("ACTOR"), (Object[]) notNull())).andReturn(null);
+        replay(conn);
+
+        CountingStructMapper<Actor> mapper = new CountingStructMapper<Actor>(Actor.class);
+        mapper.currentSchemas.put(conn, "SCOTT");
+        mapper.synonyms.put("ACTOR_SYNONYM", "SCOTT.ACTOR");
+        mapper.toStruct(new Actor(), conn, "ACTOR_SYNONYM");
+        mapper.toStruct(new Actor(), conn, "ACTOR");
+        assertEquals(Arrays.asList("ACTOR_SYNONYM"), mapper.lookedUpTypeNames);
+        verify(conn);
+    }
+
+    public void testMetadataIsLookedUpAgainAfterInvalidation() throws Exception {
+        CountingStructMapper<Actor> mapper = new CountingStructMapper<Actor>(Actor.class);
+        mapper.fromStruct(actorStruct("ACTOR"));
+        mapper.fromStruct(actorStruct("OTHER"));
+        mapper.invalidateMetadata("ACTOR");
+        mapper.fromStruct(actorStruct("ACTOR"));
+        mapper.fromStruct(actorStruct("OTHER"));
+        assertEquals(3, mapper.lookups);
+        mapper.clearMetadataCache();
+        mapper.fromStruct(actorStruct("ACTOR"));
+        mapper.fromStruct(actorStruct("OTHER"));
+        assertEquals(5, mapper.lookups);
+    }
+
+    public void testFastAndBeanWrapperAccessMapTheSameValues() throws Exception {
+        CountingStructMapper<Actor> fast = new CountingStructMapper<Actor>(Actor.class);
+        CountingStructMapper<Actor> beanWrapper = new CountingStructMapper<Actor>(Actor.class);
+        beanWrapper.setFastPropertyAccess(false);
+
+        Actor fastActor = fast.fromStruct(actorStruct("ACTOR"));
+        Actor beanWrapperActor = beanWrapper.fromStruct(actorStruct("ACTOR"));
+        assertEquals(Long.valueOf(1), fastActor.getId());
+        assertEquals("Bogart", fastActor.getName());
+        assertEquals(57, fastActor.getAge());
+        assertEquals(BIRTH_DATE, fastActor.getBirthDate());
+        assertEquals(fastActor.getId(), beanWrapperActor.getId());
+        assertEquals(fastActor.getName(), beanWrapperActor.getName());
+        assertEquals(fastActor.getAge(), beanWrapperActor.getAge());
+        assertEquals(fastActor.getBirthDate(), beanWrapperActor.getBirthDate());
+    }
+
+    public void testNumbersAreConvertedWithoutABeanWrapper() throws Exception {
+        CountingStructMapper<Actor> mapper = new CountingStructMapper<Actor>(Actor.class);
+        Actor actor = mapper.fromStruct(new TestStruct("ACTOR",
+                new Object[] {new BigDecimal(1), "Bogart", new BigDecimal(57), BIRTH_DATE}));
+        assertEquals(Long.valueOf(1), actor.getId());
+        assertEquals(57, actor.getAge());
+        assertEquals(0, mapper.beanWrappers);
+    }
+
+    public void testNumberOutOfTheRangeOfThePropertyTypeIsRejected() throws Exception {
+        Struct struct = new TestStruct("ACTOR",
+                new Object[] {new BigDecimal(1), "Bogart", new BigDecimal(Long.MAX_VALUE), null});
+        for (boolean fastPropertyAccess : new boolean[] {true, false}) {
+            CountingStructMapper<Actor> mapper = new CountingStructMapper<Actor>(Actor.class);
+            mapper.setFastPropertyAccess(fastPropertyAccess);
+            try {
+                mapper.fromStruct(struct);
+                fail("TypeMismatchException expected");
+            }
+            catch (TypeMismatchException ex) {
+                assertEquals("age", ex.getPropertyName());
+            }
+        }
+    }
+
+    public void testNestedStructsAndArraysAreMappedToBeans() throws Exception {
+        Struct bogart = actorStruct("SCOTT.ACTOR");
+        Struct bacall = new TestStruct("SCOTT.ACTOR", new Object[] {new BigDecimal(2), "Bacall", 20, null});
+        Struct movie = new TestStruct("SCOTT.MOVIE", new Object[] {new BigDecimal(7), bogart,
+                new DetachedArray("SCOTT.ACTOR", Types.STRUCT, new Object[] {bogart, bacall}),
+                new DetachedArray("SCOTT.ACTOR", Types.STRUCT, new Object[] {bacall})});
+
+        CountingStructMapper<Movie> mapper = new CountingStructMapper<Movie>(Movie.class);
+        Movie mapped = mapper.fromStruct(movie);
+        assertEquals(Long.valueOf(7), mapped.getId());
+        assertEquals("Bogart", mapped.getLead().getName());
+        assertEquals(2, mapped.getCast().size());
+        assertEquals("Bogart", mapped.getCast().get(0).getName());
+        assertEquals("Bacall", mapped.getCast().get(1).getName());
+        assertEquals(1, mapped.getExtras().length);
+        assertEquals(Long.valueOf(2), mapped.getExtras()[0].getId());
+        assertEquals(1, mapper.lookups);
+        assertEquals(1, mapper.nestedMapper.lookups);
+    }
+
+    public void testNestedBeansAndCollectionsAreMappedToStructsAndArrays() throws Exception {
+        Actor bogart = new Actor();
+        bogart.setId(1L);
+        Actor bacall = new Actor();
+        bacall.setId(2L);
+        Movie movie = new Movie();
+        movie.setId(7L);
+        movie.setLead(bogart);
+        movie.setCast(Arrays.asList(bogart, bacall));
+
+        Struct bogartStruct = actorStruct("SCOTT.ACTOR");
+        Struct bacallStruct = actorStruct("SCOTT.ACTOR");
+        Array cast = new DetachedArray("SCOTT.ACTOR", Types.STRUCT, new Object[0]);
+        Struct movieStruct = new TestStruct("SCOTT.MOVIE", new Object[0]);
+        OracleConnection conn = createMock(OracleConnection.class);
+        expect(conn.createStruct(eq("SCOTT.ACTOR"), aryEq(new Object[] {1L, null, 0, null})))
+                .andReturn(bogartStruct).times(2);
+        expect(conn.createStruct(eq("SCOTT.ACTOR"), aryEq(new Object[] {2L, null, 0, null})))
+                .andReturn(bacallStruct);
+        expect(conn.createOracleArray(eq("SCOTT.ACTOR_TAB"), aryEq(new Object[] {bogartStruct, bacallStruct})))
+                .andReturn(cast);
+        expect(conn.createStruct(eq("SCOTT.MOVIE"), aryEq(new Object[] {7L, bogartStruct, cast, null})))
+                .andReturn(movieStruct);
+        replay(conn);
+
+        CountingStructMapper<Movie> mapper = new CountingStructMapper<Movie>(Movie.class);
+        assertSame(movieStruct, mapper.toStruct(movie, conn, "SCOTT.MOVIE"));
+        verify(conn);
+    }
+
+    public void testNullForPrimitiveProperty() throws Exception {
+        Struct struct = new TestStruct("ACTOR", new Object[] {new BigDecimal(2), "Bacall", null, null});
+        for (boolean fastPropertyAccess : new boolean[] {true, false}) {
+            CountingStructMapper<Actor> mapper = new CountingStructMapper<Actor>(Actor.class);
+            mapper.setFastPropertyAccess(fastPropertyAccess);
+            try {
+                mapper.fromStruct(struct);
+                fail("TypeMismatchException expected");
+            }
+            catch (TypeMismatchException ex) {
+                // expected
+            }
+            mapper.setPrimitivesDefaultedForNullValue(true);
+            Actor actor = mapper.fromStruct(struct);
+            assertEquals(0, actor.getAge());
+            assertEquals("Bacall", actor.getName());
+            assertNull(actor.getBirthDate());
+        }
+    }
+
+
+    private static Struct actorStruct(String typeName) {
+        return new TestStruct(typeName, new Object[] {new BigDecimal(1), "Bogart", 57, BIRTH_DATE});
+    }
+
+    private static ResultSetMetaData movieMetaData() throws SQLException {
+        RowSetMetaDataImpl rsmd = new RowSetMetaDataImpl();
+        rsmd.setColumnCount(4);
+        rsmd.setColumnName(1, "ID");
+        rsmd.setColumnType(1, Types.NUMERIC);
+        rsmd.setColumnName(2, "LEAD");
+        rsmd.setColumnType(2, Types.STRUCT);
+        rsmd.setColumnTypeName(2, "SCOTT.ACTOR");
+        rsmd.setColumnName(3, "CAST");
+        rsmd.setColumnType(3, Types.ARRAY);
+        rsmd.setColumnTypeName(3, "SCOTT.ACTOR_TAB");
+        rsmd.setColumnName(4, "EXTRAS");
+        rsmd.setColumnType(4, Types.ARRAY);
+        rsmd.setColumnTypeName(4, "SCOTT.ACTOR_TAB");
+        return rsmd;
+    }
+
+    private static ResultSetMetaData actorMetaData() throws SQLException {
+        RowSetMetaDataImpl rsmd = new RowSetMetaDataImpl();
+        rsmd.setColumnCount(4);
+        rsmd.setColumnName(1, "ID");
+        rsmd.setColumnType(1, Types.NUMERIC);
+        rsmd.setColumnName(2, "NAME");
+        rsmd.setColumnType(2, Types.VARCHAR);
+        rsmd.setColumnName(3, "AGE");
+        rsmd.setColumnType(3, Types.INTEGER);
+        rsmd.setColumnName(4, "BIRTH_DATE");
+        rsmd.setColumnType(4, Types.TIMESTAMP);
+        return rsmd;
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private static class CountingStructMapper<T> extends BeanPropertyStructMapper<T> {
+
+        int lookups;
+
+        int beanWrappers;
+
+        final List<String> lookedUpTypeNames = new ArrayList<String>();
+
+        /** The schema each connection resolves type names without a schema in */
+        final Map<Connection, String> currentSchemas = new HashMap<Connection, String>();
+
+        /** Type names resolved to the qualified name of another type */
+        final Map<String, String> synonyms = new HashMap<String, String>();
+
+        CountingStructMapper<Object> nestedMapper;
+
+        CountingStructMapper(Class<T> mappedClass) {
+            super(mappedClass);
+        }
+
+        @Override
+        protected String getQualifiedTypeName(String typeName, Connection conn) {
+            String name = (synonyms.containsKey(typeName) ? synonyms.get(typeName) : typeName);
+            return (name.indexOf('.') != -1 ? name : currentSchemas.get(conn) + "." + name);
+        }
+
+        @Override
+        protected ResultSetMetaData getStructMetaData(String typeName, Connection conn) throws SQLException {
+            lookups++;
+            lookedUpTypeNames.add(typeName);
+            return (typeName.endsWith("MOVIE") ? movieMetaData() : actorMetaData());
+        }
+
+        @Override
+        protected ResultSetMetaData getStructMetaData(Struct struct) throws SQLException {
+            return getStructMetaData(struct.getSQLTypeName(), null);
+        }
+
+        @Override
+        protected void initBeanWrapper(BeanWrapper bw) {
+            beanWrappers++;
+        }
+
+        @Override
+        protected String getArrayStructTypeName(String arrayTypeName, Connection conn) {
+            return "SCOTT.ACTOR";
+        }
+
+        @Override
+        protected StructMapper<?> getNestedMapper(Class<?> mappedClass) {
+            if (mappedClass.equals(getMappedClass())) {
+                return this;
+            }
+            if (nestedMapper == null) {
+                nestedMapper = new CountingStructMapper<Object>((Class<Object>) mappedClass);
+            }
+            return nestedMapper;
+        }
+    }
+
+
+    private static class TestStruct implements Struct {
+
+        private final String typeName;
+
+        private final Object[] attributes;
+
+        TestStruct(String typeName, Object[] attributes) {
+            this.typeName = typeName;
+            this.attributes = attributes;
+        }
+
+        public String getSQLTypeName() {
+            return typeName;
+        }
+
+        public Object[] getAttributes() {
+            return attributes.clone();
+        }
+
+        public Object[] getAttributes(Map<String, Class<?>> map) {
+            return getAttributes();
+        }
+    }
+
+
+    public static class Actor {
+
+        private Long id;
+
+        private String name;
+
+        private int age;
+
+        private Date birthDate;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public Date getBirthDate() {
+            return birthDate;
+        }
+
+        public void setBirthDate(Date birthDate) {
+            this.birthDate = birthDate;
+        }
+    }
+
+
+    public static class Movie {
+
+        private Long id;
+
+        private Actor lead;
+
+        private List<Actor> cast;
+
+        private Actor[] extras;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public Actor getLead() {
+            return lead;
+        }
+
+        public void setLead(Actor lead) {
+            this.lead = lead;
+        }
+
+        public List<Actor> getCast() {
+            return cast;
+        }
+
+        public void setCast(List<Actor> cast) {
+            this.cast = cast;
+        }
+
+        public Actor[] getExtras() {
+            return extras;
+        }
+
+        public void setExtras(Actor[] extras) {
+            this.extras = extras;
+        }
+    }
+
+}
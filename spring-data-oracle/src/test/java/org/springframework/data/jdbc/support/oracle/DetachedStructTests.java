@@ -0,0 +1,134 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashMap;
+
+import javax.sql.rowset.RowSetMetaDataImpl;
+
+import junit.framework.TestCase;
+
+import oracle.sql.STRUCT;
+import oracle.sql.StructDescriptor;
+
+import org.springframework.data.jdbc.support.oracle.BeanPropertyStructMapperTests.Movie;
+
+public class DetachedStructTests extends TestCase {
+
+    private StructDescriptor movieDescriptor;
+
+    private StructDescriptor actorDescriptor;
+
+    private Array cast;
+
+    private STRUCT movie;
+
+    @Override
+    protected void setUp() throws Exception {
+        movieDescriptor = descriptor(movieMetaData());
+        actorDescriptor = descriptor(actorMetaData());
+        STRUCT bogart = actor(1, "Bogart");
+        STRUCT bacall = actor(2, "Bacall");
+        cast = mock(Array.class);
+        when(cast.getBaseTypeName()).thenReturn("SCOTT.ACTOR");
+        when(cast.getBaseType()).thenReturn(Types.STRUCT);
+        when(cast.getArray()).thenReturn(new Object[] {bogart, bacall});
+        movie = mock(STRUCT.class);
+        when(movie.getSQLTypeName()).thenReturn("SCOTT.MOVIE");
+        when(movie.getDescriptor()).thenReturn(movieDescriptor);
+        when(movie.getAttributes()).thenReturn(new Object[] {new BigDecimal(7), bogart, cast});
+    }
+
+    public void testNestedStructsAndArraysAreDetached() throws Exception {
+        DetachedStruct detached = DetachedStruct.detach(movie, new HashMap<String, ResultSetMetaData>());
+        assertEquals("SCOTT.MOVIE", detached.getSQLTypeName());
+        Object[] attributes = detached.getAttributes();
+        assertTrue(attributes[1] instanceof DetachedStruct);
+        assertEquals("Bogart", ((DetachedStruct) attributes[1]).getAttributes()[1]);
+        assertTrue(attributes[2] instanceof DetachedArray);
+        DetachedArray array = (DetachedArray) attributes[2];
+        assertEquals("SCOTT.ACTOR", array.getBaseTypeName());
+        assertEquals(Types.STRUCT, array.getBaseType());
+        Object[] elements = (Object[]) array.getArray();
+        assertEquals(2, elements.length);
+        assertTrue(elements[0] instanceof DetachedStruct);
+        assertEquals("Bacall", ((DetachedStruct) elements[1]).getAttributes()[1]);
+        verify(actorDescriptor, times(1)).getMetaData();
+    }
+
+    public void testDetachedStructIsMappedWithoutTheDriver() throws Exception {
+        DetachedStruct detached = DetachedStruct.detach(movie, new HashMap<String, ResultSetMetaData>());
+        Movie mapped = new BeanPropertyStructMapper<Movie>(Movie.class).fromStruct(detached);
+        assertEquals(Long.valueOf(7), mapped.getId());
+        assertEquals("Bogart", mapped.getLead().getName());
+        assertEquals(2, mapped.getCast().size());
+        assertEquals("Bacall", mapped.getCast().get(1).getName());
+        verify(cast, times(1)).getArray();
+        verify(movieDescriptor, times(1)).getMetaData();
+        verify(actorDescriptor, times(1)).getMetaData();
+    }
+
+
+    private STRUCT actor(int id, String name) throws SQLException {
+        STRUCT struct = mock(STRUCT.class);
+        when(struct.getSQLTypeName()).thenReturn("SCOTT.ACTOR");
+        when(struct.getDescriptor()).thenReturn(actorDescriptor);
+        when(struct.getAttributes()).thenReturn(new Object[] {new BigDecimal(id), name});
+        return struct;
+    }
+
+    private static StructDescriptor descriptor(ResultSetMetaData metaData) throws SQLException {
+        StructDescriptor descriptor = mock(StructDescriptor.class);
+        when(descriptor.getMetaData()).thenReturn(metaData);
+        return descriptor;
+    }
+
+    private static ResultSetMetaData movieMetaData() throws SQLException {
+        RowSetMetaDataImpl rsmd = new RowSetMetaDataImpl();
+        rsmd.setColumnCount(3);
+        rsmd.setColumnName(1, "ID");
+        rsmd.setColumnType(1, Types.NUMERIC);
+        rsmd.setColumnName(2, "LEAD");
+        rsmd.setColumnType(2, Types.STRUCT);
+        rsmd.setColumnTypeName(2, "SCOTT.ACTOR");
+        rsmd.setColumnName(3, "CAST");
+        rsmd.setColumnType(3, Types.ARRAY);
+        rsmd.setColumnTypeName(3, "SCOTT.ACTOR_TAB");
+        return rsmd;
+    }
+
+    private static ResultSetMetaData actorMetaData() throws SQLException {
+        RowSetMetaDataImpl rsmd = new RowSetMetaDataImpl();
+        rsmd.setColumnCount(2);
+        rsmd.setColumnName(1, "ID");
+        rsmd.setColumnType(1, Types.NUMERIC);
+        rsmd.setColumnName(2, "NAME");
+        rsmd.setColumnType(2, Types.VARCHAR);
+        return rsmd;
+    }
+
+}
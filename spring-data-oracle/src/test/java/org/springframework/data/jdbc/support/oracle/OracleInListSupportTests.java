@@ -0,0 +1,96 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import static org.easymock.EasyMock.aryEq;
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+
+import java.sql.Types;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import oracle.jdbc.OracleConnection;
+
+import org.springframework.data.jdbc.support.DatabaseType;
+import org.springframework.data.jdbc.support.oracle.OracleInListSupport.InClause;
+import org.springframework.jdbc.core.SqlParameterValue;
+
+public class OracleInListSupportTests extends TestCase {
+
+    public void testOracleBindsOneCollection() {
+        OracleInListSupport support = new OracleInListSupport(DatabaseType.ORACLE, "SYS.ODCINUMBERLIST");
+        InClause small = support.inClause(1, 2);
+        InClause large = support.inClause(new Object[5000]);
+        assertEquals("IN (SELECT column_value FROM TABLE(?))", small.getSql());
+        assertEquals(small.getSql(), large.getSql());
+        assertEquals(1, large.getParameters().length);
+        SqlParameterValue parameter = (SqlParameterValue) large.getParameters()[0];
+        assertEquals("SYS.ODCINUMBERLIST", parameter.getTypeName());
+        assertTrue(parameter.getValue() instanceof SqlArrayValue);
+    }
+
+    public void testOtherDatabasesPadToBucketSize() {
+        OracleInListSupport support = new OracleInListSupport(DatabaseType.HSQL, null);
+        InClause in = support.inClause(Arrays.asList(1, 2, 3));
+        assertEquals("IN (?, ?, ?, ?)", in.getSql());
+        assertEquals(Arrays.<Object>asList(1, 2, 3, 3), Arrays.asList(in.getParameters()));
+        assertEquals(in.getSql(), support.inClause(5, 6, 7, 8).getSql());
+        assertEquals("IN (?)", support.inClause().getSql());
+        assertEquals(1000, support.inClause(new Object[1000]).getParameters().length);
+    }
+
+    public void testMoreValuesThanTheLargestBucketAreRejected() {
+        OracleInListSupport support = new OracleInListSupport(DatabaseType.HSQL, null);
+        try {
+            support.inClause(new Object[1001]);
+            fail("IllegalArgumentException expected");
+        }
+        catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    public void testPrimitiveArrayIsUnwrapped() throws Exception {
+        OracleInListSupport support = new OracleInListSupport(DatabaseType.HSQL, null);
+        InClause in = support.inClause(new long[] {1L, 2L, 3L});
+        assertEquals(Arrays.<Object>asList(1L, 2L, 3L, 3L), Arrays.asList(in.getParameters()));
+        byte[] raw = new byte[] {1, 2};
+        assertSame(raw, support.inClause(raw).getParameters()[0]);
+        assertEquals(1, support.inClause(Arrays.asList(raw)).getParameters().length);
+
+        OracleInListSupport oracle = new OracleInListSupport(DatabaseType.ORACLE, "SYS.ODCINUMBERLIST");
+        SqlParameterValue parameter = (SqlParameterValue) oracle.inClause(new int[] {1, 2}).getParameters()[0];
+        OracleConnection conn = createMock(OracleConnection.class);
+        expect(conn.createOracleArray(eq("SYS.ODCINUMBERLIST"), aryEq(new Object[] {1, 2}))).andReturn(null);
+        replay(conn);
+        ((SqlArrayValue<?>) parameter.getValue()).createTypeValue(conn, Types.ARRAY, parameter.getTypeName());
+        verify(conn);
+    }
+
+    public void testCustomBucketSizes() {
+        OracleInListSupport support = new OracleInListSupport(DatabaseType.POSTGRES, null);
+        support.setBucketSizes(10, 100);
+        assertEquals(10, support.inClause(1, 2).getParameters().length);
+        assertEquals(100, support.inClause(new Object[11]).getParameters().length);
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import static org.easymock.EasyMock.aryEq;
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+
+import java.sql.Array;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.sql.DataSource;
+
+import junit.framework.TestCase;
+
+import oracle.jdbc.OracleConnection;
+
+public class SqlArrayBulkUpdateTests extends TestCase {
+
+    private static final String DML = "INSERT INTO numbers (n) SELECT column_value FROM TABLE(?)";
+
+    private static final String BLOCK = "/* bulk update */\n" +
+            "-- reports the row count\n" +
+            "  declare\n" +
+            "  l_numbers NUMBERS := ?;\n" +
+            "begin\n" +
+            "  FORALL i IN 1 .. l_numbers.COUNT DELETE FROM numbers WHERE n = l_numbers(i);\n" +
+            "  ? := SQL%ROWCOUNT;\n" +
+            "end;";
+
+    public void testPlainStatementIsExecutedPerChunk() throws Exception {
+        Array first = createMock(Array.class);
+        Array second = createMock(Array.class);
+        PreparedStatement ps = createNiceMock(PreparedStatement.class);
+        OracleConnection conn = createNiceMock(OracleConnection.class);
+        expect(conn.prepareStatement(DML)).andReturn(ps).times(2);
+        expect(ps.getConnection()).andReturn(conn).anyTimes();
+        expect(conn.createOracleArray(eq("NUMBERS"), aryEq(new Object[] {1, 2}))).andReturn(first);
+        expect(conn.createOracleArray(eq("NUMBERS"), aryEq(new Object[] {3}))).andReturn(second);
+        ps.setObject(1, first, Types.ARRAY);
+        ps.setObject(1, second, Types.ARRAY);
+        expect(ps.executeUpdate()).andReturn(2).andReturn(1);
+        DataSource dataSource = createMock(DataSource.class);
+        expect(dataSource.getConnection()).andReturn(conn).times(2);
+        replay(first, second, ps, conn, dataSource);
+
+        SqlArrayBulkUpdate<Integer> update = new SqlArrayBulkUpdate<Integer>(dataSource, DML, "NUMBERS");
+        update.setChunkSize(2);
+        int[] counts = update.update(Arrays.asList(1, 2, 3));
+        assertTrue(Arrays.equals(new int[] {2, 1}, counts));
+        verify(ps, conn, dataSource);
+    }
+
+    public void testAnonymousBlockReportsTheRowCount() throws Exception {
+        Array array = createMock(Array.class);
+        CallableStatement cs = createNiceMock(CallableStatement.class);
+        OracleConnection conn = createNiceMock(OracleConnection.class);
+        expect(conn.prepareCall(BLOCK)).andReturn(cs);
+        expect(cs.getConnection()).andReturn(conn).anyTimes();
+        expect(conn.createOracleArray(eq("NUMBERS"), aryEq(new Object[] {1, 2, 3}))).andReturn(array);
+        cs.setObject(1, array, Types.ARRAY);
+        cs.registerOutParameter(2, Types.INTEGER);
+        expect(cs.execute()).andReturn(false);
+        expect(cs.getUpdateCount()).andReturn(-1).anyTimes();
+        expect(cs.getObject(2)).andReturn(3);
+        DataSource dataSource = createMock(DataSource.class);
+        expect(dataSource.getConnection()).andReturn(conn);
+        replay(array, cs, conn, dataSource);
+
+        SqlArrayBulkUpdate<Integer> update = new SqlArrayBulkUpdate<Integer>(dataSource, BLOCK, "NUMBERS");
+        int[] counts = update.update(Arrays.asList(1, 2, 3));
+        assertTrue(Arrays.equals(new int[] {3}, counts));
+        verify(cs, conn, dataSource);
+    }
+
+    public void testEmptyInputIsNotExecuted() throws Exception {
+        DataSource dataSource = createMock(DataSource.class);
+        replay(dataSource);
+
+        SqlArrayBulkUpdate<Integer> update = new SqlArrayBulkUpdate<Integer>(dataSource, DML, "NUMBERS");
+        assertEquals(0, update.update(Collections.<Integer>emptyList()).length);
+        verify(dataSource);
+    }
+
+    public void testAnonymousBlockDetection() {
+        assertTrue(SqlArrayBulkUpdate.isAnonymousBlock("BEGIN NULL; END;"));
+        assertTrue(SqlArrayBulkUpdate.isAnonymousBlock(BLOCK));
+        assertTrue(SqlArrayBulkUpdate.isAnonymousBlock("-- comment\r\nbegin\nNULL;\nend;"));
+        assertFalse(SqlArrayBulkUpdate.isAnonymousBlock(DML));
+        assertFalse(SqlArrayBulkUpdate.isAnonymousBlock("/* BEGIN */ " + DML));
+        assertFalse(SqlArrayBulkUpdate.isAnonymousBlock("DECLARED_TABLE"));
+        assertFalse(SqlArrayBulkUpdate.isAnonymousBlock("-- BEGIN"));
+    }
+
+}
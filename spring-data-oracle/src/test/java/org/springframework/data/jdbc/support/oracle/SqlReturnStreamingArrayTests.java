@@ -0,0 +1,152 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+
+import java.sql.Array;
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+import java.sql.Struct;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import oracle.jdbc.OracleArray;
+
+public class SqlReturnStreamingArrayTests extends TestCase {
+
+    public void testElementsAreReadInWindowsUpToTheLength() throws Exception {
+        OracleArray array = createMock(OracleArray.class);
+        expect(array.length()).andReturn(4);
+        expect(array.getArray(1L, 2)).andReturn(new Object[] {"a", "b"});
+        expect(array.getArray(3L, 2)).andReturn(new Object[] {"c", "d"});
+        array.free();
+        CallableStatement cs = createMock(CallableStatement.class);
+        expect(cs.getObject(1)).andReturn(array);
+        replay(array, cs);
+
+        final List<String> elements = new ArrayList<String>();
+        SqlReturnStreamingArray<String> returnType =
+                new SqlReturnStreamingArray<String>(new ArrayElementCallbackHandler<String>() {
+                    public void processElement(String element) {
+                        elements.add(element);
+                    }
+                });
+        returnType.setWindowSize(2);
+
+        assertEquals(4, returnType.getTypeValue(cs, 1, Types.ARRAY, "NAMES"));
+        assertEquals(Arrays.asList("a", "b", "c", "d"), elements);
+        verify(array, cs);
+    }
+
+    public void testArrayOfUnknownLengthIsReadUntilAWindowIsShort() throws Exception {
+        Array array = createMock(Array.class);
+        expect(array.getArray(1L, 2)).andReturn(new Object[] {"a", "b"});
+        expect(array.getArray(3L, 2)).andReturn(new Object[] {"c"});
+        array.free();
+        CallableStatement cs = createMock(CallableStatement.class);
+        expect(cs.getObject(1)).andReturn(array);
+        replay(array, cs);
+
+        final List<String> elements = new ArrayList<String>();
+        SqlReturnStreamingArray<String> returnType =
+                new SqlReturnStreamingArray<String>(new ArrayElementCallbackHandler<String>() {
+                    public void processElement(String element) {
+                        elements.add(element);
+                    }
+                });
+        returnType.setWindowSize(2);
+
+        assertEquals(3, returnType.getTypeValue(cs, 1, Types.ARRAY, "NAMES"));
+        assertEquals(3, elements.size());
+        assertEquals("c", elements.get(2));
+        verify(array, cs);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testNullElementIsPassedOnWithMapper() throws Exception {
+        Struct struct = createMock(Struct.class);
+        StructMapper<String> mapper = createMock(StructMapper.class);
+        expect(mapper.fromStruct(struct)).andReturn("mapped");
+        OracleArray array = createMock(OracleArray.class);
+        expect(array.length()).andReturn(2);
+        expect(array.getArray(1L, 2)).andReturn(new Object[] {struct, null});
+        array.free();
+        CallableStatement cs = createMock(CallableStatement.class);
+        expect(cs.getObject(1)).andReturn(array);
+        replay(struct, mapper, array, cs);
+
+        final List<String> elements = new ArrayList<String>();
+        SqlReturnStreamingArray<String> returnType =
+                new SqlReturnStreamingArray<String>(mapper, new ArrayElementCallbackHandler<String>() {
+                    public void processElement(String element) {
+                        elements.add(element);
+                    }
+                });
+
+        assertEquals(2, returnType.getTypeValue(cs, 1, Types.ARRAY, "ACTOR_TYPE_ARRAY"));
+        assertEquals(Arrays.asList("mapped", null), elements);
+        verify(struct, mapper, array, cs);
+    }
+
+    public void testArrayIsFreedWhenCallbackFails() throws Exception {
+        OracleArray array = createMock(OracleArray.class);
+        expect(array.length()).andReturn(1);
+        expect(array.getArray(1L, 1)).andReturn(new Object[] {"a"});
+        array.free();
+        CallableStatement cs = createMock(CallableStatement.class);
+        expect(cs.getObject(1)).andReturn(array);
+        replay(array, cs);
+
+        SqlReturnStreamingArray<String> returnType =
+                new SqlReturnStreamingArray<String>(new ArrayElementCallbackHandler<String>() {
+                    public void processElement(String element) throws SQLException {
+                        throw new SQLException("failed");
+                    }
+                });
+        try {
+            returnType.getTypeValue(cs, 1, Types.ARRAY, "NAMES");
+            fail("SQLException expected");
+        }
+        catch (SQLException ex) {
+            // expected
+        }
+        verify(array, cs);
+    }
+
+    public void testNullArray() throws Exception {
+        CallableStatement cs = createMock(CallableStatement.class);
+        expect(cs.getObject(1)).andReturn(null);
+        replay(cs);
+
+        SqlReturnStreamingArray<Object> returnType =
+                new SqlReturnStreamingArray<Object>(new ArrayElementCallbackHandler<Object>() {
+                    public void processElement(Object element) {
+                        fail("no elements expected");
+                    }
+                });
+        assertNull(returnType.getTypeValue(cs, 1, Types.ARRAY, "NAMES"));
+        verify(cs);
+    }
+}
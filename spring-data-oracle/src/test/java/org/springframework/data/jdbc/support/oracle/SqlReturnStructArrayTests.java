@@ -0,0 +1,223 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Struct;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.rowset.RowSetMetaDataImpl;
+
+import junit.framework.TestCase;
+
+import oracle.sql.ARRAY;
+import oracle.sql.STRUCT;
+import oracle.sql.StructDescriptor;
+
+public class SqlReturnStructArrayTests extends TestCase {
+
+    private ExecutorService pool;
+
+    @Override
+    protected void setUp() throws Exception {
+        pool = Executors.newFixedThreadPool(3);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        pool.shutdownNow();
+    }
+
+    public void testOrderIsKeptAcrossChunks() throws Exception {
+        CountingExecutor executor = new CountingExecutor(pool);
+        SqlReturnStructArray<Integer> returnType = new SqlReturnStructArray<Integer>(new IdMapper(), Integer.class);
+        returnType.setExecutor(executor);
+        returnType.setParallelThreshold(4);
+        returnType.setChunkSize(3);
+
+        Object value = returnType.getTypeValue(callableStatement(10), 1, Types.ARRAY, "ACTOR_TYPE_ARRAY");
+        assertTrue(Arrays.equals(new Integer[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9}, (Integer[]) value));
+        assertEquals(4, executor.executed.get());
+    }
+
+    public void testExecutorIsUsedFromThreshold() throws Exception {
+        CountingExecutor executor = new CountingExecutor(pool);
+        SqlReturnStructArray<Integer> returnType = new SqlReturnStructArray<Integer>(new IdMapper(), Integer.class);
+        returnType.setExecutor(executor);
+        returnType.setParallelThreshold(4);
+        returnType.setChunkSize(2);
+
+        Object value = returnType.getTypeValue(callableStatement(3), 1, Types.ARRAY, "ACTOR_TYPE_ARRAY");
+        assertTrue(Arrays.equals(new Integer[] {0, 1, 2}, (Integer[]) value));
+        assertEquals(0, executor.executed.get());
+
+        value = returnType.getTypeValue(callableStatement(4), 1, Types.ARRAY, "ACTOR_TYPE_ARRAY");
+        assertTrue(Arrays.equals(new Integer[] {0, 1, 2, 3}, (Integer[]) value));
+        assertEquals(2, executor.executed.get());
+    }
+
+    public void testSQLExceptionOfWorkerIsRethrown() throws Exception {
+        SQLException failure = new SQLException("failed");
+        SqlReturnStructArray<Integer> returnType =
+                new SqlReturnStructArray<Integer>(new FailingMapper(5, failure), Integer.class);
+        returnType.setExecutor(pool);
+        returnType.setParallelThreshold(1);
+        returnType.setChunkSize(2);
+        try {
+            returnType.getTypeValue(callableStatement(8), 1, Types.ARRAY, "ACTOR_TYPE_ARRAY");
+            fail("SQLException expected");
+        }
+        catch (SQLException ex) {
+            assertSame(failure, ex);
+        }
+    }
+
+    public void testRuntimeExceptionOfWorkerIsRethrown() throws Exception {
+        IllegalStateException failure = new IllegalStateException("failed");
+        SqlReturnStructArray<Integer> returnType =
+                new SqlReturnStructArray<Integer>(new FailingMapper(5, failure), Integer.class);
+        returnType.setExecutor(pool);
+        returnType.setParallelThreshold(1);
+        returnType.setChunkSize(2);
+        try {
+            returnType.getTypeValue(callableStatement(8), 1, Types.ARRAY, "ACTOR_TYPE_ARRAY");
+            fail("IllegalStateException expected");
+        }
+        catch (IllegalStateException ex) {
+            assertSame(failure, ex);
+        }
+    }
+
+    public void testPendingChunksAreCancelledOnFailure() throws Exception {
+        final List<Runnable> queued = new ArrayList<Runnable>();
+        Executor firstChunkOnly = new Executor() {
+            public void execute(Runnable command) {
+                if (queued.isEmpty()) {
+                    command.run();
+                }
+                queued.add(command);
+            }
+        };
+        SqlReturnStructArray<Integer> returnType =
+                new SqlReturnStructArray<Integer>(new FailingMapper(0, new SQLException("failed")), Integer.class);
+        returnType.setExecutor(firstChunkOnly);
+        returnType.setParallelThreshold(1);
+        returnType.setChunkSize(2);
+        try {
+            returnType.getTypeValue(callableStatement(6), 1, Types.ARRAY, "ACTOR_TYPE_ARRAY");
+            fail("SQLException expected");
+        }
+        catch (SQLException ex) {
+            // expected
+        }
+        assertEquals(3, queued.size());
+        assertFalse(((FutureTask<?>) queued.get(0)).isCancelled());
+        assertTrue(((FutureTask<?>) queued.get(1)).isCancelled());
+        assertTrue(((FutureTask<?>) queued.get(2)).isCancelled());
+    }
+
+
+    private static CallableStatement callableStatement(int length) throws SQLException {
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(1);
+        metaData.setColumnName(1, "ID");
+        metaData.setColumnType(1, Types.NUMERIC);
+        StructDescriptor descriptor = mock(StructDescriptor.class);
+        when(descriptor.getMetaData()).thenReturn(metaData);
+        Object[] structs = new Object[length];
+        for (int i = 0; i < length; i++) {
+            STRUCT struct = mock(STRUCT.class);
+            when(struct.getSQLTypeName()).thenReturn("ACTOR_TYPE");
+            when(struct.getDescriptor()).thenReturn(descriptor);
+            when(struct.getAttributes()).thenReturn(new Object[] {i});
+            structs[i] = struct;
+        }
+        ARRAY array = mock(ARRAY.class);
+        when(array.getArray()).thenReturn(structs);
+        CallableStatement cs = mock(CallableStatement.class);
+        when(cs.getObject(1)).thenReturn(array);
+        return cs;
+    }
+
+
+    private static class IdMapper implements StructMapper<Integer> {
+
+        public Struct toStruct(Integer source, Connection conn, String typeName) {
+            throw new UnsupportedOperationException();
+        }
+
+        public Integer fromStruct(Struct struct) throws SQLException {
+            return (Integer) struct.getAttributes()[0];
+        }
+    }
+
+
+    private static class FailingMapper extends IdMapper {
+
+        private final int failingId;
+
+        private final Exception failure;
+
+        FailingMapper(int failingId, Exception failure) {
+            this.failingId = failingId;
+            this.failure = failure;
+        }
+
+        @Override
+        public Integer fromStruct(Struct struct) throws SQLException {
+            Integer id = super.fromStruct(struct);
+            if (id == failingId) {
+                if (failure instanceof SQLException) {
+                    throw (SQLException) failure;
+                }
+                throw (RuntimeException) failure;
+            }
+            return id;
+        }
+    }
+
+
+    private static class CountingExecutor implements Executor {
+
+        private final Executor target;
+
+        final AtomicInteger executed = new AtomicInteger();
+
+        CountingExecutor(Executor target) {
+            this.target = target;
+        }
+
+        public void execute(Runnable command) {
+            executed.incrementAndGet();
+            target.execute(command);
+        }
+    }
+
+}
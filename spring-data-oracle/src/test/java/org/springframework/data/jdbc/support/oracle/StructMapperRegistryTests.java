@@ -0,0 +1,93 @@
+/*
+ * Copyright 2008-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.jdbc.support.oracle;
+
+import junit.framework.TestCase;
+
+public class StructMapperRegistryTests extends TestCase {
+
+    public void testMapperIsCreatedOncePerClass() {
+        StructMapperRegistry registry = new StructMapperRegistry();
+        StructMapper<Actor> mapper = registry.getMapper(Actor.class);
+        assertTrue(mapper instanceof BeanPropertyStructMapper);
+        assertSame(mapper, registry.getMapper(Actor.class));
+        assertEquals(Actor.class, ((BeanPropertyStructMapper<Actor>) mapper).getMappedClass());
+    }
+
+    public void testMapperConfigurationIsFrozen() {
+        StructMapperRegistry registry = new StructMapperRegistry() {
+            @Override
+            protected <T> StructMapper<T> createMapper(Class<T> mappedClass) {
+                BeanPropertyStructMapper<T> mapper = new BeanPropertyStructMapper<T>(mappedClass);
+                mapper.setFastPropertyAccess(false);
+                return mapper;
+            }
+        };
+        BeanPropertyStructMapper<Actor> mapper = (BeanPropertyStructMapper<Actor>) registry.getMapper(Actor.class);
+        assertFalse(mapper.isFastPropertyAccess());
+        assertTrue(mapper.isConfigurationFrozen());
+        try {
+            mapper.setFastPropertyAccess(true);
+            fail("IllegalStateException expected");
+        }
+        catch (IllegalStateException ex) {
+            // expected
+        }
+    }
+
+    public void testWarmUpAndClear() {
+        final int[] created = new int[1];
+        StructMapperRegistry registry = new StructMapperRegistry() {
+            @Override
+            protected <T> StructMapper<T> createMapper(Class<T> mappedClass) {
+                created[0]++;
+                return super.createMapper(mappedClass);
+            }
+        };
+        registry.warmUp(Actor.class);
+        registry.getMapper(Actor.class);
+        assertEquals(1, created[0]);
+        registry.clear();
+        registry.getMapper(Actor.class);
+        assertEquals(2, created[0]);
+    }
+
+
+    public static class Actor {
+
+        private Long id;
+
+        private String name;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+}